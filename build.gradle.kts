@@ -40,6 +40,14 @@ tasks.test {
     useJUnitPlatform()
     filter {
         includeTestsMatching("KeepassProxyAccessTest")
+        includeTestsMatching("org.keepassxc.*")
+        includeTestsMatching("org.purejava.LoginCacheTest")
+        includeTestsMatching("org.purejava.PipelinedDispatchTest")
+        includeTestsMatching("org.purejava.LoginEntryTest")
+        includeTestsMatching("org.purejava.GroupIndexTest")
+        includeTestsMatching("org.purejava.TotpCacheTest")
+        includeTestsMatching("org.purejava.PasswordPoolTest")
+        includeTestsMatching("org.purejava.PipelinedRequestsTest")
     }
 }
 
@@ -0,0 +1,76 @@
+package org.keepassxc;
+
+import java.lang.module.ModuleDescriptor.Version;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * What the KeePassXC instance of the current session supports. It is worked out from the version KeePassXC reports,
+ * when the public keys are exchanged, and stays the same until the next key exchange.
+ */
+public final class Capabilities {
+    private final Version version;
+    private final Set<String> supportedActions;
+
+    private Capabilities(Version version, Set<String> supportedActions) {
+        this.version = version;
+        this.supportedActions = Set.copyOf(supportedActions);
+    }
+
+    /**
+     * Work out the supported actions for a version of KeePassXC.
+     *
+     * @param version        The version KeePassXC reported or null, if it is not known. In this case, or if the
+     *                       version cannot be parsed, all actions are considered supported.
+     * @param minimumVersion The actions with the version of KeePassXC they were introduced with, or an empty String
+     *                       for actions that are supported by all versions.
+     * @return The capabilities.
+     */
+    static Capabilities of(String version, Map<String, String> minimumVersion) {
+        Version parsed = null;
+        if (null != version && !version.isEmpty()) {
+            try {
+                parsed = Version.parse(version);
+            } catch (IllegalArgumentException e) {
+                parsed = null;
+            }
+        }
+        var supported = new HashSet<String>();
+        for (var action : minimumVersion.entrySet()) {
+            if (null == parsed || action.getValue().isEmpty()
+                    || parsed.compareTo(Version.parse(action.getValue())) >= 0) {
+                supported.add(action.getKey());
+            }
+        }
+        return new Capabilities(parsed, supported);
+    }
+
+    /**
+     * @return The version of KeePassXC, an empty Optional, if it is not known.
+     */
+    public Optional<Version> getVersion() {
+        return Optional.ofNullable(version);
+    }
+
+    /**
+     * @param action The action of a request, e.g. delete-entry.
+     * @return True, if KeePassXC supports the action.
+     */
+    public boolean supports(String action) {
+        return supportedActions.contains(action);
+    }
+
+    /**
+     * @return The actions of the requests KeePassXC supports.
+     */
+    public Set<String> getSupportedActions() {
+        return supportedActions;
+    }
+
+    @Override
+    public String toString() {
+        return "KeePassXC " + (null == version ? "unknown version" : version) + ", supports " + supportedActions;
+    }
+}
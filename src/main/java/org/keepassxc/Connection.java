@@ -1,9 +1,9 @@
 package org.keepassxc;
 
 import com.iwebpp.crypto.TweetNaclFast;
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.purejava.Credentials;
 import org.purejava.KeepassProxyAccessException;
 import org.slf4j.Logger;
@@ -11,32 +11,48 @@ import org.slf4j.LoggerFactory;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Establishes a connection to KeePassXC via its build-in proxy.
  * .connect() and .associate() need to ba called to create the connection.
+ * <p>
+ * Every request is available as a blocking method and as an asynchronous variant ending in {@code Async}, that returns
+ * a CompletableFuture. These futures get completed by the thread reading from the proxy, so dependent actions should
+ * not block, or should be run on an executor of their own.
  */
 public abstract class Connection implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(Connection.class);
     private final PropertyChangeSupport support;
+    final SubmissionPublisher<ConnectionEvent> events;
 
-    private TweetNaclFast.Box box;
-    private Optional<Credentials> credentials;
+    private volatile CryptoSession session;
+    private volatile Optional<Credentials> credentials;
+    private volatile DatabaseState databaseState = DatabaseState.UNKNOWN;
+    private volatile Capabilities capabilities = Capabilities.of(null, REQUEST_MINIMUM_VERSIONS);
     private final String clientID;
     private static final int nonceLength = 24;
-    private byte[] nonce;
 
-    final ExecutorService executorService = Executors.newFixedThreadPool(12);
+    final ExecutionStrategy execution;
+    final ExecutorService executorService;
     protected MessagePublisher messagePublisher;
-    private final long QUEUE_CHECKING_INTERVAL_MS = 100;
-    private final long SLOW_QUEUE_PROCESSING_MS = 500;
-    private final ConcurrentLinkedQueue<JSONObject> queue = new ConcurrentLinkedQueue<>();
+    private final ResponseStore pendingRequests;
+    private final Object writeLock = new Object();
+    private final ConcurrentHashMap<Map<String, Object>, CompletableFuture<JSONObject>> requestsInFlight = new ConcurrentHashMap<>();
+    private static final int WRITER_POOL_SIZE = 8;
+    private static final int WRITER_CAPACITY = 1024;
+    private final FrameDecoder decoder = new FrameDecoder();
+    private final Predicate<String> frameAction = decoder::isAction;
+    private final BlockingQueue<JsonWriter> writers = new ArrayBlockingQueue<>(WRITER_POOL_SIZE);
 
     private final int MAX_ERROR_COUNT = 4;
     private final int RECONNECT_DELAY_S = 15;
@@ -61,40 +77,70 @@ public abstract class Connection implements AutoCloseable {
         GET_DATABASE_GROUPS("get-database-groups"),
         CREATE_NEW_GROUP("create-new-group"),
         GET_TOTP("get-totp"),
-        REQUEST_AUTOTYPE("request-autotype"),
-        PASSKEYS_REGISTER("passkeys-register"),
-        PASSKEYS_GET("passkeys-get"),
-        DELETE_ENTRY("delete-entry");
+        REQUEST_AUTOTYPE("request-autotype", "2.7.0"),
+        PASSKEYS_REGISTER("passkeys-register", "2.7.7"),
+        PASSKEYS_GET("passkeys-get", "2.7.7"),
+        DELETE_ENTRY("delete-entry", "2.7.0");
 
         public final String action;
+        public final String minimumVersion;
 
         Message(String action) {
+            this(action, "");
+        }
+
+        Message(String action, String minimumVersion) {
             this.action = action;
+            this.minimumVersion = minimumVersion;
         }
     }
     protected final String PROXY_NAME = "org.keepassxc.KeePassXC.BrowserServer";
     private static final String NOT_CONNECTED = "Not connected to KeePassXC. Call connect().";
+    private static final String DATABASE_NOT_OPENED = "1";
     private static final String KEYEXCHANGE_MISSING = "Public keys need to be exchanged. Call changePublicKeys().";
     private static final String MISSING_CLASS = "Credentials have not been initialized";
     public static final String EXCEPTION_INFO = "Delaying association dialog response lookup due to https://github.com/keepassxreboot/keepassxc/issues/7099";
 
+    // The requests with the version of KeePassXC they were introduced with, signals are no requests
+    static final Map<String, String> REQUEST_MINIMUM_VERSIONS = Arrays.stream(Message.values())
+            .filter(m -> m != Message.DATABASE_LOCKED && m != Message.DATABASE_UNLOCKED)
+            .collect(Collectors.toUnmodifiableMap(m -> m.action, m -> m.minimumVersion));
+
     private static final Set<String> REQUESTS_WITHOUT_MANUAL_USER_INPUT = Set.of(
             Message.CHANGE_PUBLIC_KEYS.action,Message.GET_DATABASE_HASH.action,Message.TEST_ASSOCIATE.action,Message.GET_DATABASE_GROUPS.action
     );
 
+    // Read-only requests, that share one round trip, when identical requests are in flight
+    private static final Set<String> COALESCED_REQUESTS = Set.of(
+            Message.GET_DATABASE_HASH.action,Message.TEST_ASSOCIATE.action,Message.GET_LOGINS.action,Message.GET_DATABASE_GROUPS.action,Message.GET_TOTP.action
+    );
+
     public Connection() {
+        this(ExecutionStrategy.platformThreads());
+    }
+
+    /**
+     * Create a connection, that runs its tasks with the given strategy.
+     *
+     * @param execution The threads to read from the proxy, wait for responses and reconnect with.
+     * @see org.keepassxc.ExecutionStrategy
+     */
+    public Connection(ExecutionStrategy execution) {
         byte[] array = new byte[nonceLength];
         new Random().nextBytes(array);
         clientID = b64encode(array);
-        nonce = TweetNaclFast.randombytes(nonceLength);
         credentials = Optional.empty();
         support = new PropertyChangeSupport(this);
-        scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.execution = execution;
+        executorService = execution.getExecutorService();
+        scheduler = execution.getScheduler();
+        pendingRequests = new ResponseStore(scheduler);
+        events = new SubmissionPublisher<>(executorService, Flow.defaultBufferSize());
     }
 
     /**
-     * The MessagePublisher listens on the connection to the KeePassXC database and adds messages
-     * received to a queue.
+     * The MessagePublisher listens on the connection to the KeePassXC database and hands messages
+     * received over to the requests waiting for them.
      */
     class MessagePublisher implements Runnable {
         private boolean doStop = false;
@@ -111,22 +157,14 @@ public abstract class Connection implements AutoCloseable {
         @Override
         public void run() {
             while (keepRunning()) {
-                var response = getCleartextResponse();
-                if (!response.isEmpty()) {
-                    if (!isSignal(response)) LOG.trace("Response added to queue: {}", response);
-                    queue.offer(response);
+                if (readCleartextResponses()) {
                     errorCount = 0;
                 } else {
                     errorCount++;
                     if (errorCount > MAX_ERROR_COUNT) {
                         LOG.info("Too much errors - stopping MessagePublisher");
                         doStop();
-                        try {
-                            terminateConnection();
-                        } catch (IOException e) {
-                            LOG.error(e.toString(), e.getCause());
-                        }
-                        reconnect();
+                        connectionLost();
                     }
                 }
             }
@@ -134,57 +172,204 @@ public abstract class Connection implements AutoCloseable {
         }
     }
 
-    class MessageConsumer implements Callable<JSONObject> {
-        private final String action;
-        private final byte[] nonce;
+    /**
+     * Process a message received from KeePassXC. Encrypted responses are decrypted straight from the bytes received
+     * and complete the request they answer, everything else is parsed and handed over to
+     * {@link #handleResponse(JSONObject)}. This is called by the thread reading from the proxy only.
+     *
+     * @param frame  The buffer containing the message. It is only valid during the call.
+     * @param offset The start of the message within the buffer.
+     * @param length The length of the message.
+     */
+    protected void handleFrame(byte[] frame, int offset, int length) {
+        if (LOG.isTraceEnabled()) LOG.trace("Reading message: {}", new String(frame, offset, length, StandardCharsets.UTF_8));
+        if (!decoder.scan(frame, offset, length)) {
+            try {
+                handleResponse(new JSONObject(new String(frame, offset, length, StandardCharsets.UTF_8)));
+            } catch (JSONException e) {
+                LOG.error("Message corrupted. Received: {}", new String(frame, offset, length, StandardCharsets.UTF_8));
+            }
+            return;
+        }
+        var nonce = decoder.decodeNonce();
+        var pending = null == nonce ? null : pendingRequests.take(ResponseStore.Key.of(nonce), frameAction);
+        if (null == pending) {
+            if (LOG.isTraceEnabled()) LOG.trace("No pending request for response to action: {}", decoder.action());
+            return;
+        }
+        try {
+            var response = decryptFrame(nonce);
+            if (decoder.isAction(Message.GET_DATABASE_HASH.action)) setDatabaseState(DatabaseState.UNLOCKED);
+            pending.complete(response);
+        } catch (KeepassProxyAccessException e) {
+            pending.completeExceptionally(e);
+        } catch (JSONException e) {
+            pending.completeExceptionally(new KeepassProxyAccessException("Error: decrypted message is malformed", e));
+        }
+    }
 
-        /**
-         * Check the queue of messages from the KeePassXC database for a message with a given action and nonce,
-         * which is the answer to a request sent before and return the message.
-         *
-         * @param action We are searching for a message with a certain action and
-         * @param nonce  a certain nonce.
-         */
-        public MessageConsumer(String action, byte[] nonce) {
-            this.action = action;
-            this.nonce = nonce;
+    /**
+     * Decrypt the encrypted response located by the decoder. The plain text is wiped once it is parsed.
+     *
+     * @param nonce The nonce of the response, decoded already.
+     * @return The received message, decrypted.
+     * @throws KeepassProxyAccessException The message could not be decrypted.
+     */
+    private JSONObject decryptFrame(byte[] nonce) throws KeepassProxyAccessException {
+        var length = decoder.decodeMessage();
+        var current = session;
+        var plain = length < 0 || null == current
+                ? null
+                : current.decrypt(decoder.message(), 0, length, nonce);
+        if (null == plain) {
+            throw new KeepassProxyAccessException("Error: message could not be decrypted");
         }
+        try {
+            if (LOG.isTraceEnabled()) LOG.trace("Decrypted message: {}", new String(plain, StandardCharsets.UTF_8));
+            return new JSONObject(new JSONTokener(new ByteArrayInputStream(plain)));
+        } finally {
+            Arrays.fill(plain, (byte) 0);
+        }
+    }
 
-        @Override
-        public JSONObject call() throws Exception {
-            while (true) {
-                var response = queue.peek();
-                if (null == response) {
-                    Thread.sleep(QUEUE_CHECKING_INTERVAL_MS);
-                    continue;
-                }
-                if (isSignal(response)) {
-                    queue.remove(response);
-                    continue;
-                }
-                if (response.toString().equals("{}")) {
-                    queue.remove(response);
-                    LOG.trace("KeePassXC send an empty response: {}", response);
-                    continue;
-                }
-                for (JSONObject message : queue) {
-                    LOG.trace("Checking in queue message {}, looking for action '{}' and nonce {}", message, action, b64encode(incrementNonce(nonce)));
-                    if (message.has("error") && message.getString("action").equals(action)) {
-                        queue.remove(message);
-                        LOG.trace("Found in and retrieved from queue: {}", message);
-                        return message;
-                    }
-                    if (message.has("action")
-                            && message.getString("action").equals(action)
-                            && message.has("nonce")
-                            && message.getString("nonce").equals(b64encode(incrementNonce(nonce)))) {
-                        queue.remove(message);
-                        LOG.trace("Retrieved from queue: {}", message);
-                        return message;
-                    }
-                }
-                Thread.sleep(SLOW_QUEUE_PROCESSING_MS);
+    /**
+     * Process a message received from KeePassXC, that is not an encrypted response.
+     *
+     * @param response The message received.
+     */
+    protected void handleResponse(JSONObject response) {
+        if (isSignal(response)) {
+            setDatabaseState(response.getString("action").equals(Message.DATABASE_LOCKED.action)
+                    ? DatabaseState.LOCKED
+                    : DatabaseState.UNLOCKED);
+        } else {
+            if (DATABASE_NOT_OPENED.equals(response.optString("errorCode"))) setDatabaseState(DatabaseState.LOCKED);
+            completePendingRequest(response);
+        }
+    }
+
+    /**
+     * Close the connection after it broke, fail all requests still waiting for a response and try to reconnect.
+     */
+    protected void connectionLost() {
+        try {
+            terminateConnection();
+        } catch (IOException e) {
+            LOG.error(e.toString(), e.getCause());
+        }
+        databaseState = DatabaseState.UNKNOWN;
+        publish(ConnectionEvent.DISCONNECTED);
+        var lost = new IOException("Connection to KeePassXC lost");
+        pendingRequests.failAll(lost);
+        reconnect();
+    }
+
+    /**
+     * Update the lock state of the database and publish an event, in case it changed.
+     *
+     * @param state The state KeePassXC reported.
+     */
+    private void setDatabaseState(DatabaseState state) {
+        if (databaseState == state) return;
+        databaseState = state;
+        LOG.debug("Database state changed to {}", state);
+        publish(state == DatabaseState.LOCKED ? ConnectionEvent.DATABASE_LOCKED : ConnectionEvent.DATABASE_UNLOCKED);
+    }
+
+    /**
+     * Hand an event over to the subscribers. Subscribers that don't keep up miss the event instead of blocking
+     * the thread reading from the proxy.
+     *
+     * @param event The event.
+     */
+    void publish(ConnectionEvent event) {
+        if (!events.isClosed()) {
+            events.offer(event, (subscriber, dropped) -> {
+                LOG.debug("Subscriber too slow, dropping event {}", dropped);
+                return false;
+            });
+        }
+    }
+
+    /**
+     * Fail a request with a TimeoutException, in case it did not complete within the given time.
+     *
+     * @param request The request to watch.
+     * @param timeout The time the request may take.
+     * @param unit    The unit of the timeout.
+     */
+    protected void scheduleTimeout(CompletableFuture<?> request, long timeout, TimeUnit unit) {
+        request.orTimeout(timeout, unit);
+    }
+
+    /**
+     * Register a request that is about to be sent, so that its response can be handed over as soon as it arrives.
+     * This needs to happen before the request is sent, as KeePassXC might answer before the sender gets to wait
+     * for the response. Requests that don't require user input need to receive an answer within the specified
+     * timeout, otherwise the returned future completes with a TimeoutException.
+     *
+     * @param action The action of the request.
+     * @param nonce  The nonce of the request.
+     * @return The future that gets completed with the response received from KeePassXC.
+     */
+    private CompletableFuture<JSONObject> registerPendingRequest(String action, byte[] nonce) {
+        var pending = pendingRequests.register(ResponseStore.Key.of(incrementNonce(nonce)), action);
+        if (REQUESTS_WITHOUT_MANUAL_USER_INPUT.contains(action)) {
+            scheduleTimeout(pending, RESPONSE_TIMEOUT_S, TimeUnit.SECONDS);
+        }
+        return pending;
+    }
+
+    /**
+     * Complete the pending request the given response answers. Error responses don't carry a nonce, so they
+     * are handed over to the oldest request with the same action, as KeePassXC answers in order.
+     *
+     * @param response The response received from KeePassXC.
+     */
+    private void completePendingRequest(JSONObject response) {
+        try {
+            if (!response.has("action")) {
+                LOG.trace("Dropping response without action: {}", response);
+                return;
+            }
+            var action = response.getString("action");
+            CompletableFuture<JSONObject> pending = null;
+            if (response.has("error")) {
+                pending = pendingRequests.takeOldest(action);
+            } else if (response.has("nonce")) {
+                pending = pendingRequests.take(ResponseStore.Key.of(b64decode(response.getString("nonce").getBytes())), action::equals);
             }
+            if (null == pending) {
+                LOG.trace("No pending request for response: {}", response);
+                return;
+            }
+            LOG.trace("Response received: {}", response);
+            pending.complete(response);
+        } catch (JSONException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            LOG.trace("Dropping malformed response: {}", response);
+        }
+    }
+
+    /**
+     * Wait for a request to complete and unwrap the reason, in case it failed.
+     *
+     * @param request The request to wait for.
+     * @return The result of the request.
+     * @throws IOException                 The request failed due to technical reasons.
+     * @throws KeepassProxyAccessException It was impossible to process the request.
+     */
+    private <T> T awaitResponse(CompletableFuture<T> request) throws IOException, KeepassProxyAccessException {
+        try {
+            return request.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeepassProxyAccessException("Interrupted while waiting for a response", e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException ioe) throw ioe;
+            if (cause instanceof KeepassProxyAccessException kpae) throw kpae;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new KeepassProxyAccessException(cause.toString(), cause);
         }
     }
 
@@ -207,6 +392,7 @@ public abstract class Connection implements AutoCloseable {
             }
         };
         var scheduledTask = scheduler.schedule(connect, RECONNECT_DELAY_S, TimeUnit.SECONDS);
+        publish(ConnectionEvent.RECONNECTING);
         var previouslyScheduledTask = scheduledConnectCmd.getAndSet(scheduledTask);
         if (previouslyScheduledTask != null) {
             previouslyScheduledTask.cancel(false);
@@ -226,18 +412,44 @@ public abstract class Connection implements AutoCloseable {
     /**
      * Send an unencrypted message to the proxy.
      * The proxy accepts messages in the JSON data format.
+     * Messages may be sent by several threads at once, so implementations must write each message as a whole.
+     * The buffer is reused once this returns, so implementations must not keep it.
+     *
+     * @param msg The message to be sent, UTF-8 encoded. The key "action" describes the request to the proxy.
+     * @throws IOException Sending failed due to technical reasons.
+     */
+    protected abstract void sendCleartextMessage(ByteBuffer msg) throws IOException;
+
+    /**
+     * Send an unencrypted message to the proxy, that might be written only later on, e.g. by an event loop.
+     * By default, the message is sent right away with {@link #sendCleartextMessage(ByteBuffer)}.
+     *
+     * @param msg The message to be sent, UTF-8 encoded. The buffer is reused once this returns.
+     * @return A future, that completes, once the message was written, or fails, in case it could not be written.
+     * @throws IOException Sending failed due to technical reasons right away.
+     */
+    protected CompletableFuture<Void> sendCleartextMessageAsync(ByteBuffer msg) throws IOException {
+        sendCleartextMessage(msg);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Send an unencrypted message to the proxy.
      *
      * @param msg The message to be sent. The key "action" describes the request to the proxy.
      * @throws IOException Sending failed due to technical reasons.
      */
-    protected abstract void sendCleartextMessage(String msg) throws IOException;
+    protected void sendCleartextMessage(String msg) throws IOException {
+        sendCleartextMessage(ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8)));
+    }
 
     /**
-     * Read a raw message ("as is") from the KeePassXC proxy. Blocks, until message could be read.
+     * Read raw messages ("as is") from the KeePassXC proxy and hand every complete message over to
+     * {@link #handleFrame(byte[], int, int)}. Blocks, until data could be read.
      *
-     * @return The received raw message, therefore unencrypted.
+     * @return False, if reading failed or the proxy closed the connection, true otherwise.
      */
-    protected abstract JSONObject getCleartextResponse();
+    protected abstract boolean readCleartextResponses();
 
     /**
      * Test, if the response is a "database-locked" or "database-unlocked" signal.
@@ -257,96 +469,181 @@ public abstract class Connection implements AutoCloseable {
     /**
      * Send an encrypted message to the proxy.
      * The proxy accepts messages in the JSON data format.
+     * This can be called by several threads at once: every message gets a nonce of its own, which is used to match
+     * the response to it, so there is no need to wait for the response to a previous message.
      *
      * @param msg The message to be sent. The key "action" describes the request to the proxy.
-     * @return The nonce that was used for this message.
-     * @throws IllegalStateException Connection was not initialized before.
+     * @return The future that gets completed with the encrypted response to this message.
+     * @throws IllegalStateException Connection was not initialized before or too many requests are waiting for their responses.
      * @throws IOException           Sending failed due to technical reasons.
      */
-    private synchronized byte[] sendEncryptedMessage(Map<String, Object> msg) throws IOException {
+    private CompletableFuture<JSONObject> sendEncryptedMessage(Map<String, Object> msg) throws IOException {
         var unlockRequested = false;
 
         if (!isConnected()) {
             throw new IllegalStateException(NOT_CONNECTED);
         }
 
-        var publicKey = credentials.orElseThrow(() -> new IllegalStateException(KEYEXCHANGE_MISSING)).getServerPublicKey();
-        var keyPair = credentials.orElseThrow(() -> new IllegalStateException(KEYEXCHANGE_MISSING)).getOwnKeypair();
+        var session = this.session;
+        if (null == session) {
+            throw new IllegalStateException(KEYEXCHANGE_MISSING);
+        }
 
         if (msg.containsKey("triggerUnlock") && msg.get("triggerUnlock").equals("true")) {
             msg.remove("triggerUnlock");
             unlockRequested = true;
         }
 
-        var strMsg = jsonTxt(msg);
-        LOG.trace("Send - encrypting the following message: {}", strMsg);
+        var action = msg.get("action").toString();
+        var nonce = ramdomGenerateNonce();
+        CompletableFuture<JSONObject> pending;
 
-        box = new TweetNaclFast.Box(publicKey, keyPair.getSecretKey());
-        nonce = ramdomGenerateNonce();
-
-        var encrypted = b64encode(box.box(strMsg.getBytes(), nonce));
+        // The message is written into pooled buffers and encrypted from there, the envelope carries the
+        // encrypted message Base64 encoded straight from the result of the encryption
+        var plain = acquireWriter();
+        var envelope = acquireWriter();
+        try {
+            plain.object(msg);
+            if (LOG.isTraceEnabled()) LOG.trace("Send - encrypting the following message: {}", plain);
+
+            var encrypted = session.encrypt(plain.array(), 0, plain.length(), nonce);
+
+            envelope.beginObject()
+                    .field("action", action)
+                    .base64Field("message", encrypted)
+                    .base64Field("nonce", nonce)
+                    .field("clientID", clientID);
+            if (unlockRequested) {
+                envelope.field("triggerUnlock", "true");
+            }
+            envelope.endObject();
+            pending = registerAndSend(action, nonce, envelope.toByteBuffer());
+        } finally {
+            releaseWriter(plain);
+            releaseWriter(envelope);
+        }
+        return pending;
 
-        // Map.of can't be used here, because we need a mutable object
-        var message = new HashMap<String, Object>();
-        message.put("action", msg.get("action").toString());
-        message.put("message", encrypted);
-        message.put("nonce", b64encode(nonce));
-        message.put("clientID", clientID);
+    }
 
-        if (unlockRequested) {
-            message.put("triggerUnlock", "true");
+    /**
+     * Register a request and send it in one step, so the requests are registered in the order KeePassXC receives
+     * them. This is needed to match error responses, that carry no nonce, to their requests.
+     *
+     * @param action The action of the request.
+     * @param nonce  The nonce of the request.
+     * @param msg    The message to be sent, UTF-8 encoded.
+     * @return The future that gets completed with the response received from KeePassXC. It fails with an IOException,
+     * in case the message turns out not to be written later on.
+     * @throws IOException           Sending failed due to technical reasons. The returned future is failed already then.
+     * @throws IllegalStateException Too many requests are waiting for their responses, the request was not sent.
+     */
+    private CompletableFuture<JSONObject> registerAndSend(String action, byte[] nonce, ByteBuffer msg) throws IOException {
+        synchronized (writeLock) {
+            var pending = registerPendingRequest(action, nonce);
+            try {
+                sendCleartextMessageAsync(msg).whenComplete((written, t) -> {
+                    // e.g. the socket was closed, before the event loop got to write the message
+                    if (null != t) pending.completeExceptionally(t);
+                });
+            } catch (IOException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+            return pending;
         }
-        sendCleartextMessage(jsonTxt(message));
-        return nonce;
-
     }
 
     /**
-     * Receive the encrypted message from the proxy that fits an action and decrypt it.
+     * Decrypt the encrypted response from the proxy, once it arrives.
      * The proxy sends messages in the JSON data format.
      *
-     * @param action The original request that was sent to the proxy.
-     * @param nonce  The original nonce that was part of the request.
+     * @param action  The original request that was sent to the proxy.
+     * @param pending The future that gets completed with the decrypted response or an error response.
+     * @return The future that gets completed with the received message, decrypted. It completes exceptionally
+     * with a KeepassProxyAccessException in case it was impossible to process the requested action.
+     */
+    private CompletableFuture<JSONObject> getEncryptedResponseAndDecrypt(String action, CompletableFuture<JSONObject> pending) {
+        return pending.handle((response, t) -> {
+            if (t instanceof TimeoutException) {
+                throw new CompletionException(new KeepassProxyAccessException("Timeout for action '" + action + "'"));
+            }
+            if (null != t) {
+                throw t instanceof CompletionException ce ? ce : new CompletionException(t);
+            }
+            try {
+                return checkResponse(response);
+            } catch (KeepassProxyAccessException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Check a response from the proxy, that was decrypted by the thread reading from the proxy already.
+     *
+     * @param response The decrypted response or the error response received from the proxy.
      * @return The received message, decrypted.
      * @throws KeepassProxyAccessException It was impossible to process the requested action.
      */
-    private synchronized JSONObject getEncryptedResponseAndDecrypt(String action, byte[] nonce) throws KeepassProxyAccessException {
-        var response = new JSONObject();
-
-        try {
-            // requests that don't require user input need to receive an answer within
-            // the specified timeout
-            if (REQUESTS_WITHOUT_MANUAL_USER_INPUT.contains(action)) {
-                response = executorService.submit(new MessageConsumer(action, nonce)).get(RESPONSE_TIMEOUT_S, TimeUnit.SECONDS);
-            } else {
-                response = executorService.submit(new MessageConsumer(action, nonce)).get();
-            }
-        } catch (TimeoutException toe) {
-            throw new KeepassProxyAccessException("Timeout for action '" + action + "'");
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.error(e.toString(), e.getCause());
+    private JSONObject checkResponse(JSONObject response) throws KeepassProxyAccessException {
+        // Error responses are cleartext and lack success. Decrypted responses may carry an empty error, e.g. set-login.
+        if (!response.has("success")) {
+            throw KeepassProxyAccessException.ofErrorCode("ErrorCode: " + response.optString("errorCode") + ", " + response.optString("error"),
+                    response.optString("errorCode", null));
         }
+        return response;
+    }
 
-        if (response.has("error")) {
-            throw new KeepassProxyAccessException("ErrorCode: " + response.getString("errorCode") + ", " + response.getString("error"));
+    /**
+     * Send an encrypted request to the proxy and decrypt the response, once it arrives. Failures are reported
+     * through the returned future, this never throws.
+     * A read-only request, that is identical to a request still waiting for its response, is not sent again, but
+     * completes with the same response. The response is shared by these requests then.
+     *
+     * @param msg The message to be sent. The key "action" describes the request to the proxy.
+     * @return The future that gets completed with the decrypted response.
+     */
+    private CompletableFuture<JSONObject> sendRequest(Map<String, Object> msg) {
+        if (!COALESCED_REQUESTS.contains(msg.get("action").toString())) {
+            return send(msg);
         }
-
-        var serverNonce = b64decode(response.getString("nonce").getBytes());
-        var bMessage = box.open(b64decode(response.getString("message").getBytes()), serverNonce);
-
-        if (bMessage == null) {
-            throw new KeepassProxyAccessException("Error: message could not be decrypted");
+        // Identical read-only requests in flight share one round trip
+        var key = Map.copyOf(msg);
+        var shared = new CompletableFuture<JSONObject>();
+        var inFlight = requestsInFlight.putIfAbsent(key, shared);
+        if (null != inFlight) {
+            LOG.trace("Joining request in flight for action: {}", key.get("action"));
+            return inFlight.copy();
         }
+        send(msg).whenComplete((response, t) -> {
+            requestsInFlight.remove(key, shared);
+            if (null != t) {
+                shared.completeExceptionally(t);
+            } else {
+                shared.complete(response);
+            }
+        });
+        return shared.copy();
+    }
 
-        var decrypted = new String(bMessage, StandardCharsets.UTF_8);
-        LOG.trace("Decrypted message: {}", decrypted);
-        var decryptedResponse = new JSONObject(decrypted);
-
-        if (!decryptedResponse.has("success")) {
-            throw new KeepassProxyAccessException("ErrorCode: " + response.getString("errorCode") + ", " + response.getString("error"));
+    /**
+     * Send an encrypted request to the proxy and decrypt the response, once it arrives.
+     *
+     * @param msg The message to be sent. The key "action" describes the request to the proxy.
+     * @return The future that gets completed with the decrypted response.
+     */
+    private CompletableFuture<JSONObject> send(Map<String, Object> msg) {
+        var action = msg.get("action").toString();
+        if (!capabilities.supports(action)) {
+            return CompletableFuture.failedFuture(new KeepassProxyAccessException("Request " + action + " is not supported by "
+                    + capabilities.getVersion().map(v -> "KeePassXC " + v).orElse("this KeePassXC")));
+        }
+        try {
+            return getEncryptedResponseAndDecrypt(action, sendEncryptedMessage(msg));
+        } catch (IOException | IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
         }
-
-        return decryptedResponse;
     }
 
     /**
@@ -361,21 +658,22 @@ public abstract class Connection implements AutoCloseable {
         }
 
         var keyPair = TweetNaclFast.Box.keyPair();
-        nonce = ramdomGenerateNonce();
+        var nonce = ramdomGenerateNonce();
 
         // Send change-public-keys request
-        sendCleartextMessage(jsonTxt(Map.of(
+        var pending = registerAndSend(Message.CHANGE_PUBLIC_KEYS.action, nonce, ByteBuffer.wrap(jsonTxt(Map.of(
                 "action", Message.CHANGE_PUBLIC_KEYS.action,
                 "publicKey", b64encode(keyPair.getPublicKey()),
                 "nonce", b64encode(nonce),
                 "clientID", clientID
-        )));
+        )).getBytes(StandardCharsets.UTF_8)));
 
         var response = new JSONObject();
 
         try {
-            response = executorService.submit(new MessageConsumer(Message.CHANGE_PUBLIC_KEYS.action, nonce)).get();
+            response = pending.get();
         } catch (InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
             LOG.error(e.toString(), e.getCause());
         }
 
@@ -384,7 +682,9 @@ public abstract class Connection implements AutoCloseable {
         }
 
         var publicKey = b64decode(response.getString("publicKey").getBytes());
-        box = new TweetNaclFast.Box(publicKey, keyPair.getSecretKey());
+        session = new CryptoSession(publicKey, keyPair.getSecretKey());
+        capabilities = Capabilities.of(response.optString("version", null), REQUEST_MINIMUM_VERSIONS);
+        LOG.debug("Connected to {}", capabilities);
 
         if (credentials.isEmpty()) {
             setCredentials(Optional.of(new Credentials()));
@@ -392,7 +692,10 @@ public abstract class Connection implements AutoCloseable {
         credentials.orElseThrow(() -> new IllegalStateException(MISSING_CLASS)).setOwnKeypair(keyPair);
         credentials.orElseThrow(() -> new IllegalStateException(MISSING_CLASS)).setServerPublicKey(publicKey);
         support.firePropertyChange("credentialsCreated", null, credentials);
+        publish(ConnectionEvent.KEY_EXCHANGE_DONE);
 
+        // Seed the database state, from now on it is kept up to date by the signals KeePassXC sends
+        getDatabasehashAsync().exceptionally(t -> null);
     }
 
     /**
@@ -407,7 +710,7 @@ public abstract class Connection implements AutoCloseable {
         var keyPair = credentials.orElseThrow(() -> new IllegalStateException(KEYEXCHANGE_MISSING)).getOwnKeypair();
 
         // Send associate request
-        var nonce = sendEncryptedMessage(Map.of(
+        var pending = sendEncryptedMessage(Map.of(
                 "action", Message.ASSOCIATE.action,
                 "key", b64encode(keyPair.getPublicKey()),
                 "idKey", b64encode(idKeyPair.getPublicKey())
@@ -419,18 +722,18 @@ public abstract class Connection implements AutoCloseable {
         //  a KeepassProxyAccessException needs to be thrown to interrupt the current program flow
         //  otherwise bringing up the association dialog blocks due to a Qt bug,
         //  see https://github.com/keepassxreboot/keepassxc/issues/7099
-        Runnable lookupResponse = () -> {
-            JSONObject response = null;
-            try {
-                response = getEncryptedResponseAndDecrypt(Message.ASSOCIATE.action, nonce);
-            } catch (KeepassProxyAccessException e) {
-                LOG.error(e.toString(), e.getCause());
-            }
-            assert response != null;
-            credentials.orElseThrow(() -> new IllegalStateException(MISSING_CLASS)).setAssociateId(response.getString("id"));
-            credentials.orElseThrow(() -> new IllegalStateException(MISSING_CLASS)).setIdKeyPublicKey(idKeyPair.getPublicKey());
-            support.firePropertyChange("associated", null, credentials);
-        };
+        // The response is processed once it arrives, so the scheduler is not blocked while the user
+        // confirms the association
+        Runnable lookupResponse = () -> getEncryptedResponseAndDecrypt(Message.ASSOCIATE.action, pending)
+                .whenComplete((response, t) -> {
+                    if (null != t) {
+                        LOG.error(t.toString(), t.getCause());
+                        return;
+                    }
+                    credentials.orElseThrow(() -> new IllegalStateException(MISSING_CLASS)).setAssociateId(response.getString("id"));
+                    credentials.orElseThrow(() -> new IllegalStateException(MISSING_CLASS)).setIdKeyPublicKey(idKeyPair.getPublicKey());
+                    support.firePropertyChange("associated", null, credentials);
+                });
         scheduler.schedule(lookupResponse, RESPONSE_DELAY_MS, TimeUnit.MILLISECONDS);
         throw new KeepassProxyAccessException(EXCEPTION_INFO);
     }
@@ -443,11 +746,18 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException It was impossible to get the hash.
      */
     public String getDatabasehash() throws IOException, KeepassProxyAccessException {
-        // Send get-databasehash request
-        var nonce = sendEncryptedMessage(Map.of("action", Message.GET_DATABASE_HASH.action));
-        var response = getEncryptedResponseAndDecrypt(Message.GET_DATABASE_HASH.action, nonce);
+        return awaitResponse(getDatabasehashAsync());
+    }
 
-        return response.getString("hash");
+    /**
+     * Asynchronous variant of {@link #getDatabasehash()}.
+     *
+     * @return A future that completes with the database hash of the current active KeePassXC database.
+     */
+    public CompletableFuture<String> getDatabasehashAsync() {
+        // Send get-databasehash request
+        return sendRequest(Map.of("action", Message.GET_DATABASE_HASH.action))
+                .thenApply(response -> response.getString("hash"));
     }
 
     /**
@@ -460,14 +770,21 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException It was impossible to get the hash.
      */
     public String getDatabasehash(boolean triggerUnlock) throws IOException, KeepassProxyAccessException {
+        return awaitResponse(getDatabasehashAsync(triggerUnlock));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getDatabasehash(boolean)}.
+     *
+     * @param triggerUnlock When true, the KeePassXC application is brought to the front and unlock is requested from the user.
+     * @return A future that completes with the database hash of the current active KeePassXC database.
+     */
+    public CompletableFuture<String> getDatabasehashAsync(boolean triggerUnlock) {
         // Send get-databasehash request with triggerUnlock, if needed
         var map = new HashMap<String, Object>(); // Map.of can't be used here, because we need a mutable object
         map.put("action", Message.GET_DATABASE_HASH.action);
         map.put("triggerUnlock", Boolean.toString(triggerUnlock));
-        var nonce = sendEncryptedMessage(map);
-        var response = getEncryptedResponseAndDecrypt(Message.GET_DATABASE_HASH.action, nonce);
-
-        return response.getString("hash");
+        return sendRequest(map).thenApply(response -> response.getString("hash"));
     }
 
     /**
@@ -481,14 +798,23 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException It was impossible to perform the test.
      */
     public void testAssociate(String id, String key) throws IOException, KeepassProxyAccessException {
+        awaitResponse(testAssociateAsync(id, key));
+    }
+
+    /**
+     * Asynchronous variant of {@link #testAssociate(String, String)}.
+     *
+     * @param id  The identifier of the KeePassXC database connection to be tested.
+     * @param key The public key of the idKeyPair to be tested.
+     * @return A future that completes normally, if the test is positive.
+     */
+    public CompletableFuture<Void> testAssociateAsync(String id, String key) {
         // Send test-associate request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.TEST_ASSOCIATE.action,
                 "id", id,
                 "key", key
-        ));
-        getEncryptedResponseAndDecrypt(Message.TEST_ASSOCIATE.action, nonce);
-
+        )).thenAccept(response -> {});
     }
 
     /**
@@ -503,18 +829,34 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException No credentials found for the given URL.
      */
     public JSONObject getLogins(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) throws IOException, KeepassProxyAccessException {
-        var jsonArray = checkKeysList(list);
+        return awaitResponse(getLoginsAsync(url, submitUrl, httpAuth, list));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLogins(String, String, boolean, List)}.
+     *
+     * @param url       The URL credentials are looked up for.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param httpAuth  Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list      Id / key combinations identifying and granting access to KeePassXC databases.
+     * @return A future that completes with all found credentials together with additional information.
+     */
+    public CompletableFuture<JSONObject> getLoginsAsync(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
+        List<Map<String, String>> keys;
+        try {
+            keys = checkKeysList(list);
+        } catch (KeepassProxyAccessException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
         // Send get-logins
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.GET_LOGINS.action,
                 "url", ensureNotNull(url),
                 "submitUrl", ensureNotNull(submitUrl),
                 "httpAuth", httpAuth,
-                "keys", jsonArray
+                "keys", keys
         ));
-        return getEncryptedResponseAndDecrypt(Message.GET_LOGINS.action, nonce);
-
     }
 
     /**
@@ -537,8 +879,26 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException Credentials could not be stored in the KeePassXC database.
      */
     public JSONObject setLogin(String url, String submitUrl, String id, String login, String password, String group, String groupUuid, String uuid) throws IOException, KeepassProxyAccessException {
+        return awaitResponse(setLoginAsync(url, submitUrl, id, login, password, group, groupUuid, uuid));
+    }
+
+    /**
+     * Asynchronous variant of {@link #setLogin(String, String, String, String, String, String, String, String)}.
+     *
+     * @param url       The URL to be saved. The title of the new entry is the hostname of the URL.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param id        An identifier for the KeePassXC database connection - ignored at the moment.
+     * @param login     The username to be saved.
+     * @param password  The password to be saved.
+     * @param group     The group name to be used for new entries.
+     * @param groupUuid Identifier to decide, where to store the entry.
+     * @param uuid      Identifier whether an existing entry is updated or a new one is created.
+     * @return A future that completes with an object that contains the key "success" with the value "true" in case
+     * the request was successful.
+     */
+    public CompletableFuture<JSONObject> setLoginAsync(String url, String submitUrl, String id, String login, String password, String group, String groupUuid, String uuid) {
         // Send set-login
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.SET_LOGIN.action,
                 "url", ensureNotNull(url),
                 "submitUrl", ensureNotNull(submitUrl),
@@ -549,8 +909,6 @@ public abstract class Connection implements AutoCloseable {
                 "groupUuid", ensureNotNull(groupUuid),
                 "uuid", ensureNotNull(uuid)
         ));
-        return getEncryptedResponseAndDecrypt(Message.SET_LOGIN.action, nonce);
-
     }
 
     /**
@@ -561,10 +919,17 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The groups could not be retrieved or there weren't any.
      */
     public JSONObject getDatabaseGroups() throws IOException, KeepassProxyAccessException {
-        // Send get-database-groups
-        var nonce = sendEncryptedMessage(Map.of("action", Message.GET_DATABASE_GROUPS.action));
-        return getEncryptedResponseAndDecrypt(Message.GET_DATABASE_GROUPS.action, nonce);
+        return awaitResponse(getDatabaseGroupsAsync());
+    }
 
+    /**
+     * Asynchronous variant of {@link #getDatabaseGroups()}.
+     *
+     * @return A future that completes with an object that contains the database groups and groupUuids.
+     */
+    public CompletableFuture<JSONObject> getDatabaseGroupsAsync() {
+        // Send get-database-groups
+        return sendRequest(Map.of("action", Message.GET_DATABASE_GROUPS.action));
     }
 
     /**
@@ -575,13 +940,20 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The password could not be generated.
      */
     public JSONObject generatePassword() throws IOException, KeepassProxyAccessException {
+        return awaitResponse(generatePasswordAsync());
+    }
+
+    /**
+     * Asynchronous variant of {@link #generatePassword()}.
+     *
+     * @return A future that completes with the newly generated password.
+     */
+    public CompletableFuture<JSONObject> generatePasswordAsync() {
         // Send generate-password request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.GENERATE_PASSWORD.action,
                 "clientID", clientID
         ));
-        return getEncryptedResponseAndDecrypt(Message.GENERATE_PASSWORD.action, nonce);
-
     }
 
     /**
@@ -592,10 +964,18 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The database could not be locked.
      */
     public JSONObject lockDatabase() throws IOException, KeepassProxyAccessException {
-        // Send lock-database request
-        var nonce = sendEncryptedMessage(Map.of("action", Message.LOCK_DATABASE.action));
-        return getEncryptedResponseAndDecrypt(Message.LOCK_DATABASE.action, nonce);
+        return awaitResponse(lockDatabaseAsync());
+    }
 
+    /**
+     * Asynchronous variant of {@link #lockDatabase()}.
+     *
+     * @return A future that completes with an object that contains the key "action" with the value "database-locked"
+     * in case the request was successful.
+     */
+    public CompletableFuture<JSONObject> lockDatabaseAsync() {
+        // Send lock-database request
+        return sendRequest(Map.of("action", Message.LOCK_DATABASE.action));
     }
 
     /**
@@ -609,13 +989,23 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The group could not be created.
      */
     public JSONObject createNewGroup(String path) throws IOException, KeepassProxyAccessException {
+        return awaitResponse(createNewGroupAsync(path));
+    }
+
+    /**
+     * Asynchronous variant of {@link #createNewGroup(String)}.
+     *
+     * @param path Name or path. A path of the format level1/level2 creates a group level1 on the root level and a
+     *             group level2 as a child of level1.
+     * @return A future that completes with the last part of the path name of the group that was created with its
+     * according groupUuid.
+     */
+    public CompletableFuture<JSONObject> createNewGroupAsync(String path) {
         // Send create-new-group request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.CREATE_NEW_GROUP.action,
                 "groupName", ensureNotNull(path)
         ));
-        return getEncryptedResponseAndDecrypt(Message.CREATE_NEW_GROUP.action, nonce);
-
     }
 
     /**
@@ -628,17 +1018,26 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The TOTP could not be retrieved.
      */
     public JSONObject getTotp(String uuid) throws IOException, KeepassProxyAccessException {
+        return awaitResponse(getTotpAsync(uuid));
+    }
+
+    /**
+     * Asynchronous variant of {@link #getTotp(String)}.
+     *
+     * @param uuid The uuid of the entry.
+     * @return A future that completes with the TOTP for the entry or an empty String in case TOTP is not configured
+     * for that entry.
+     */
+    public CompletableFuture<JSONObject> getTotpAsync(String uuid) {
         // Send get-totp request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.GET_TOTP.action,
                 "uuid", ensureNotNull(uuid)
         ));
-        return getEncryptedResponseAndDecrypt(Message.GET_TOTP.action, nonce);
-
     }
 
     /**
-     * Request to delete an entry, identified by its uuid.
+     * Request to delete an entry, identified by its uuid (KeePassXC 2.7.0 and newer).
      *
      * @param uuid The uuid of the entry.
      * @return An object that contains the key "success" with the value "true" in case the request was successful.
@@ -646,12 +1045,22 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The entry could not be deleted.
      */
     public JSONObject deleteEntry(String uuid) throws IOException, KeepassProxyAccessException {
+        return awaitResponse(deleteEntryAsync(uuid));
+    }
+
+    /**
+     * Asynchronous variant of {@link #deleteEntry(String)}.
+     *
+     * @param uuid The uuid of the entry.
+     * @return A future that completes with an object that contains the key "success" with the value "true" in case
+     * the request was successful.
+     */
+    public CompletableFuture<JSONObject> deleteEntryAsync(String uuid) {
         // Send delete-entry request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.DELETE_ENTRY.action,
                 "uuid", ensureNotNull(uuid)
         ));
-        return getEncryptedResponseAndDecrypt(Message.DELETE_ENTRY.action, nonce);
     }
 
     /**
@@ -663,17 +1072,26 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The request could not be processed.
      */
     public JSONObject requestAutotype(String url) throws IOException, KeepassProxyAccessException {
+        return awaitResponse(requestAutotypeAsync(url));
+    }
+
+    /**
+     * Asynchronous variant of {@link #requestAutotype(String)}.
+     *
+     * @param url The URL autotype is requested for.
+     * @return A future that completes with an object that contains the key "success" with the value "true" in case
+     * the request was successful.
+     */
+    public CompletableFuture<JSONObject> requestAutotypeAsync(String url) {
         // Send request-autotype request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.REQUEST_AUTOTYPE.action,
                 "groupName", ensureNotNull(url)
         ));
-        return getEncryptedResponseAndDecrypt(Message.REQUEST_AUTOTYPE.action, nonce);
-
     }
 
     /**
-     * Request passkeys-register from the KeePassXC database (KeePassXC 2.8.0 and newer).
+     * Request passkeys-register from the KeePassXC database (KeePassXC 2.7.7 and newer).
      * @param publicKey An object containing public key-based credential.
      * @see <a href="https://www.w3.org/TR/webauthn-3/">Web Authentication: An API for accessing Public Key Credentials</a>.
      * @param origin    The origin the request originates from in the form {@code https://...}
@@ -695,21 +1113,36 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The request could not be processed.
      */
     public JSONObject passkeysRegister(JSONObject publicKey, String origin, List<Map<String, String>> list) throws IOException, KeepassProxyAccessException {
-        var jsonArray = checkKeysList(list);
+        return awaitResponse(passkeysRegisterAsync(publicKey, origin, list));
+    }
+
+    /**
+     * Asynchronous variant of {@link #passkeysRegister(JSONObject, String, List)}.
+     *
+     * @param publicKey An object containing public key-based credential.
+     * @param origin    The origin the request originates from in the form {@code https://...}
+     * @param list      A list of pairs of associateID and IDKeyPublicKey stored on association.
+     * @return A future that completes with an object that contains the result of the operation.
+     */
+    public CompletableFuture<JSONObject> passkeysRegisterAsync(JSONObject publicKey, String origin, List<Map<String, String>> list) {
+        List<Map<String, String>> keys;
+        try {
+            keys = checkKeysList(list);
+        } catch (KeepassProxyAccessException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
         // Send passkeys-register request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.PASSKEYS_REGISTER.action,
                 "publicKey", publicKey,
                 "origin", ensureNotNull(origin),
-                "keys", jsonArray
+                "keys", keys
         ));
-        return getEncryptedResponseAndDecrypt(Message.PASSKEYS_REGISTER.action, nonce);
-
     }
 
     /**
-     * Request passkeys-get from the KeePassXC database (KeePassXC 2.8.0 and newer).
+     * Request passkeys-get from the KeePassXC database (KeePassXC 2.7.7 and newer).
      * @param publicKey An object containing public key-based credential.
      * @see <a href="https://www.w3.org/TR/webauthn-3/">Web Authentication: An API for accessing Public Key Credentials</a>.
      * @param origin    The origin the request originates from in the form {@code https://...}
@@ -733,17 +1166,32 @@ public abstract class Connection implements AutoCloseable {
      * @throws KeepassProxyAccessException The request could not be processed.
      */
     public JSONObject passkeysGet(JSONObject publicKey, String origin, List<Map<String, String>> list) throws IOException, KeepassProxyAccessException {
-        var jsonArray = checkKeysList(list);
+        return awaitResponse(passkeysGetAsync(publicKey, origin, list));
+    }
+
+    /**
+     * Asynchronous variant of {@link #passkeysGet(JSONObject, String, List)}.
+     *
+     * @param publicKey An object containing public key-based credential.
+     * @param origin    The origin the request originates from in the form {@code https://...}
+     * @param list      A list of pairs of associateID and IDKeyPublicKey stored on association.
+     * @return A future that completes with an object that contains the result of the operation.
+     */
+    public CompletableFuture<JSONObject> passkeysGetAsync(JSONObject publicKey, String origin, List<Map<String, String>> list) {
+        List<Map<String, String>> keys;
+        try {
+            keys = checkKeysList(list);
+        } catch (KeepassProxyAccessException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
         // Send passkeys-get request
-        var nonce = sendEncryptedMessage(Map.of(
+        return sendRequest(Map.of(
                 "action", Message.PASSKEYS_GET.action,
                 "publicKey", publicKey,
                 "origin", ensureNotNull(origin),
-                "keys", jsonArray
+                "keys", keys
         ));
-        return getEncryptedResponseAndDecrypt(Message.PASSKEYS_GET.action, nonce);
-
     }
 
     /**
@@ -756,6 +1204,26 @@ public abstract class Connection implements AutoCloseable {
         return new JSONObject(keysValues).toString();
     }
 
+    /**
+     * Take a JsonWriter from the pool.
+     *
+     * @return A pooled JsonWriter or a new one, in case the pool is empty.
+     */
+    private JsonWriter acquireWriter() {
+        var writer = writers.poll();
+        return null == writer ? new JsonWriter(WRITER_CAPACITY) : writer;
+    }
+
+    /**
+     * Wipe a JsonWriter and put it back into the pool, as long as the pool is not full.
+     *
+     * @param writer The JsonWriter to be put back.
+     */
+    private void releaseWriter(JsonWriter writer) {
+        writer.reset();
+        writers.offer(writer);
+    }
+
     /**
      * Genrate a randomly generated nonce.
      *
@@ -816,22 +1284,23 @@ public abstract class Connection implements AutoCloseable {
      * Syntax check for keys array.
      *
      * @param list A list of pairs of associateID and IDKeyPublicKey stored on association.
-     * @return Transformed list as a JSONArray.
+     * @return The checked list.
      * @throws KeepassProxyAccessException The JSON object key pair is malformed.
      */
-    private JSONArray checkKeysList(List<Map<String, String>> list) throws KeepassProxyAccessException {
-        var array = new JSONArray();
+    private List<Map<String, String>> checkKeysList(List<Map<String, String>> list) throws KeepassProxyAccessException {
         for (Map<String, String> m : list) {
-            var o = new JSONObject(m);
-            if (!(o.has("id") && o.has("key") && o.length() == 2)) {
+            if (!(null != m.get("id") && null != m.get("key") && m.size() == 2)) {
                 throw new KeepassProxyAccessException("JSON object key pair is malformed");
             }
-            array.put(m);
         }
-        return array;
+        return list;
     }
 
     // Getters and Setters
+    public ExecutionStrategy getExecutionStrategy() {
+        return execution;
+    }
+
     public String getIdKeyPairPublicKey() {
         return credentials.map(value -> b64encode(value.getIdKeyPublicKey())).orElse("");
     }
@@ -840,6 +1309,54 @@ public abstract class Connection implements AutoCloseable {
         return credentials.map(Credentials::getAssociateId).orElse("");
     }
 
+    /**
+     * Subscribe to the events of this connection, e.g. to invalidate caches, when the database gets locked.
+     * Events are delivered by the executor of the connection. Subscribers, that don't keep up with the events,
+     * miss events instead of slowing down the connection.
+     *
+     * @return The publisher of the events. It completes, when the connection is closed.
+     */
+    public Flow.Publisher<ConnectionEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Get the lock state of the database without asking KeePassXC. The state is requested once after connecting
+     * and updated by the signals KeePassXC sends, when the database is locked or unlocked.
+     *
+     * @return The last known state of the database.
+     */
+    public DatabaseState getDatabaseState() {
+        return databaseState;
+    }
+
+    /**
+     * Get what KeePassXC supports without asking it. The capabilities are worked out from the version KeePassXC
+     * reports, when the public keys are exchanged. Requests KeePassXC does not support fail right away with a
+     * KeepassProxyAccessException, without being sent.
+     *
+     * @return The capabilities of the KeePassXC instance of the current session. Before the keys are exchanged,
+     * all requests are considered supported.
+     */
+    public Capabilities getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * @return The number of responses received, that no request was waiting for anymore, e.g. late answers to
+     * requests that timed out.
+     */
+    public long getOrphanedResponseCount() {
+        return pendingRequests.getOrphanedCount();
+    }
+
+    /**
+     * @return The number of requests, that were given up, because they waited too long for their responses.
+     */
+    public long getEvictedRequestCount() {
+        return pendingRequests.getEvictedCount();
+    }
+
     public void setCredentials(Optional<Credentials> credentials) {
         this.credentials = credentials;
     }
@@ -0,0 +1,33 @@
+package org.keepassxc;
+
+/**
+ * Events published by a {@link org.keepassxc.Connection Connection}.
+ *
+ * @see org.keepassxc.Connection#getEvents()
+ */
+public enum ConnectionEvent {
+    /**
+     * The connection to the proxy was established.
+     */
+    CONNECTED,
+    /**
+     * Public keys were exchanged with KeePassXC, encrypted requests can be sent from now on.
+     */
+    KEY_EXCHANGE_DONE,
+    /**
+     * The connection to the proxy was lost or closed.
+     */
+    DISCONNECTED,
+    /**
+     * A reconnect is scheduled after the connection was lost.
+     */
+    RECONNECTING,
+    /**
+     * The database was locked.
+     */
+    DATABASE_LOCKED,
+    /**
+     * The database was unlocked.
+     */
+    DATABASE_UNLOCKED
+}
@@ -0,0 +1,71 @@
+package org.keepassxc;
+
+import com.iwebpp.crypto.TweetNaclFast;
+
+/**
+ * The encryption state of a connection between two key exchanges. The shared key is computed once from the server's
+ * public key and the own secret key, so encrypting and decrypting a message only takes the symmetric part of
+ * crypto_box.
+ */
+final class CryptoSession {
+    private final TweetNaclFast.Box box;
+
+    /**
+     * Create a session and precompute the shared key.
+     *
+     * @param serverPublicKey The public key KeePassXC sent with the key exchange.
+     * @param ownSecretKey    The secret key of the own key pair used for the key exchange.
+     */
+    CryptoSession(byte[] serverPublicKey, byte[] ownSecretKey) {
+        this.box = new TweetNaclFast.Box(serverPublicKey, ownSecretKey);
+        box.before();
+    }
+
+    /**
+     * Encrypt a message.
+     *
+     * @param message The message.
+     * @param nonce   The nonce to be used for this message.
+     * @return The encrypted message.
+     */
+    byte[] encrypt(byte[] message, byte[] nonce) {
+        return encrypt(message, 0, message.length, nonce);
+    }
+
+    /**
+     * Encrypt a part of a buffer.
+     *
+     * @param message The buffer containing the message.
+     * @param offset  The start of the message within the buffer.
+     * @param length  The length of the message.
+     * @param nonce   The nonce to be used for this message.
+     * @return The encrypted message.
+     */
+    byte[] encrypt(byte[] message, int offset, int length, byte[] nonce) {
+        return box.after(message, offset, length, nonce);
+    }
+
+    /**
+     * Decrypt a message.
+     *
+     * @param encrypted The encrypted message.
+     * @param nonce     The nonce the message was encrypted with.
+     * @return The decrypted message or null, if the message could not be decrypted.
+     */
+    byte[] decrypt(byte[] encrypted, byte[] nonce) {
+        return decrypt(encrypted, 0, encrypted.length, nonce);
+    }
+
+    /**
+     * Decrypt a message contained in a part of a buffer.
+     *
+     * @param encrypted The buffer containing the encrypted message.
+     * @param offset    The start of the encrypted message within the buffer.
+     * @param length    The length of the encrypted message.
+     * @param nonce     The nonce the message was encrypted with.
+     * @return The decrypted message or null, if the message could not be decrypted.
+     */
+    byte[] decrypt(byte[] encrypted, int offset, int length, byte[] nonce) {
+        return box.open_after(encrypted, offset, length, nonce);
+    }
+}
@@ -0,0 +1,13 @@
+package org.keepassxc;
+
+/**
+ * The lock state of the KeePassXC database, as last reported by KeePassXC.
+ */
+public enum DatabaseState {
+    /**
+     * Not connected or nothing was reported since connecting.
+     */
+    UNKNOWN,
+    LOCKED,
+    UNLOCKED
+}
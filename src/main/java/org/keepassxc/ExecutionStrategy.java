@@ -0,0 +1,74 @@
+package org.keepassxc;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Defines the threads a {@link org.keepassxc.Connection Connection} uses to read from the proxy, to wait for
+ * responses, to reconnect and to save credentials.
+ */
+public final class ExecutionStrategy {
+    private static final int POOL_SIZE = 12;
+
+    private final ExecutorService executorService;
+    private final ScheduledExecutorService scheduler;
+    private final boolean owned;
+
+    private ExecutionStrategy(ExecutorService executorService, ScheduledExecutorService scheduler, boolean owned) {
+        this.executorService = executorService;
+        this.scheduler = scheduler;
+        this.owned = owned;
+    }
+
+    /**
+     * A fixed pool of platform threads and a scheduler with a platform thread of its own. This is the default.
+     *
+     * @return The strategy, that is shut down, when the connection is closed.
+     */
+    public static ExecutionStrategy platformThreads() {
+        return new ExecutionStrategy(Executors.newFixedThreadPool(POOL_SIZE), Executors.newSingleThreadScheduledExecutor(), true);
+    }
+
+    /**
+     * A new virtual thread for every task. Waiting for KeePassXC does not block a platform thread and idle
+     * connections don't hold platform threads.
+     *
+     * @return The strategy, that is shut down, when the connection is closed.
+     */
+    public static ExecutionStrategy virtualThreads() {
+        return new ExecutionStrategy(Executors.newVirtualThreadPerTaskExecutor(),
+                Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("keepassxc-scheduler").factory()),
+                true);
+    }
+
+    /**
+     * Executors provided by the caller, e.g. to share them between several connections.
+     *
+     * @param executorService Runs the MessagePublisher and other tasks. Needs to provide a thread for the
+     *                        MessagePublisher, that blocks while reading from the proxy.
+     * @param scheduler       Runs delayed tasks like reconnects and saving credentials.
+     * @return The strategy. The executors are not shut down, when the connection is closed.
+     */
+    public static ExecutionStrategy of(ExecutorService executorService, ScheduledExecutorService scheduler) {
+        return new ExecutionStrategy(executorService, scheduler, false);
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Shut down the executors, unless they were provided by the caller.
+     */
+    void shutdown() {
+        if (owned) {
+            executorService.shutdown();
+            scheduler.shutdown();
+        }
+    }
+}
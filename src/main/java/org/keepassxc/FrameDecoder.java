@@ -0,0 +1,211 @@
+package org.keepassxc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Locates the top level fields of a message received from the KeePassXC proxy right within the bytes of the frame,
+ * without parsing the frame into a JSONObject first. The Base64 encoded nonce and message of an encrypted response
+ * are decoded into buffers that are reused for every frame.
+ * Instances are not thread-safe and must only be used by the thread reading from the proxy.
+ */
+final class FrameDecoder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NONCE_LENGTH = 24;
+    private static final byte[] ACTION = "action".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NONCE = "nonce".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MESSAGE = "message".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERROR = "error".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64 = new byte[128];
+
+    static {
+        Arrays.fill(BASE64, (byte) -1);
+        var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (var i = 0; i < alphabet.length(); i++) {
+            BASE64[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private byte[] frame;
+    private int actionStart, actionEnd, nonceStart, nonceEnd, messageStart, messageEnd;
+    private boolean error;
+    private byte[] message = new byte[INITIAL_CAPACITY];
+    private final byte[] nonce = new byte[NONCE_LENGTH];
+
+    /**
+     * Locate the top level fields of a frame. The frame must not be changed, until the fields are decoded.
+     *
+     * @param bytes  The buffer containing the frame.
+     * @param offset The start of the frame within the buffer.
+     * @param length The length of the frame.
+     * @return True, if the frame is an encrypted response, i.e. it carries an action, a nonce and a message as
+     * strings and no error.
+     */
+    boolean scan(byte[] bytes, int offset, int length) {
+        frame = bytes;
+        actionStart = nonceStart = messageStart = -1;
+        error = false;
+        var end = offset + length;
+        var i = skipWhitespace(offset, end);
+        if (i >= end || frame[i] != '{') return false;
+        i = skipWhitespace(i + 1, end);
+        while (i < end && frame[i] == '"') {
+            var keyStart = i + 1;
+            var keyEnd = skipString(i, end);
+            if (keyEnd < 0) return false;
+            i = skipWhitespace(keyEnd + 1, end);
+            if (i >= end || frame[i] != ':') return false;
+            i = skipWhitespace(i + 1, end);
+            if (i >= end) return false;
+            var valueStart = i;
+            var isString = frame[i] == '"';
+            i = isString ? skipString(i, end) + 1 : skipValue(i, end);
+            if (i <= 0) return false;
+            if (isString) {
+                if (is(ACTION, keyStart, keyEnd)) {
+                    actionStart = valueStart + 1;
+                    actionEnd = i - 1;
+                } else if (is(NONCE, keyStart, keyEnd)) {
+                    nonceStart = valueStart + 1;
+                    nonceEnd = i - 1;
+                } else if (is(MESSAGE, keyStart, keyEnd)) {
+                    messageStart = valueStart + 1;
+                    messageEnd = i - 1;
+                }
+            }
+            if (is(ERROR, keyStart, keyEnd)) error = true;
+            i = skipWhitespace(i, end);
+            if (i < end && frame[i] == ',') i = skipWhitespace(i + 1, end);
+        }
+        return !error && actionStart >= 0 && nonceStart >= 0 && messageStart >= 0;
+    }
+
+    /**
+     * @return The action of the frame scanned last.
+     */
+    String action() {
+        return new String(frame, actionStart, actionEnd - actionStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare the action of the frame scanned last without creating a String.
+     *
+     * @param action The expected action.
+     * @return True, if the frame carries the given action.
+     */
+    boolean isAction(String action) {
+        if (actionEnd - actionStart != action.length()) return false;
+        for (var i = 0; i < action.length(); i++) {
+            if (frame[actionStart + i] != action.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decode the nonce of the frame scanned last.
+     *
+     * @return A buffer containing the nonce, that is overwritten by the next call, or null, if the nonce is malformed.
+     */
+    byte[] decodeNonce() {
+        return decode(nonceStart, nonceEnd, nonce) == NONCE_LENGTH ? nonce : null;
+    }
+
+    /**
+     * Decode the encrypted message of the frame scanned last into {@link #message()}.
+     *
+     * @return The length of the encrypted message or -1, if the message is malformed.
+     */
+    int decodeMessage() {
+        var capacity = (messageEnd - messageStart) / 4 * 3 + 3;
+        if (capacity > message.length) message = new byte[Math.max(message.length * 2, capacity)];
+        return decode(messageStart, messageEnd, message);
+    }
+
+    /**
+     * @return The buffer the encrypted message was decoded into. It is overwritten by the next call to decodeMessage.
+     */
+    byte[] message() {
+        return message;
+    }
+
+    /**
+     * Decode Base64 encoded bytes. Backslashes are skipped, as a JSON encoder may escape the slash.
+     *
+     * @return The number of bytes decoded or -1, if the input is malformed or does not fit.
+     */
+    private int decode(int from, int to, byte[] target) {
+        var bits = 0;
+        var count = 0;
+        var length = 0;
+        for (var i = from; i < to; i++) {
+            var b = frame[i];
+            if (b == '\\') continue;
+            if (b == '=') break;
+            var value = b < 0 ? -1 : BASE64[b];
+            if (value < 0) return -1;
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                if (length + 3 > target.length) return -1;
+                target[length++] = (byte) (bits >> 16);
+                target[length++] = (byte) (bits >> 8);
+                target[length++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 1) return -1;
+        if (length + count - 1 > target.length) return -1;
+        if (count == 2) {
+            target[length++] = (byte) (bits >> 4);
+        } else if (count == 3) {
+            target[length++] = (byte) (bits >> 10);
+            target[length++] = (byte) (bits >> 2);
+        }
+        return length;
+    }
+
+    private boolean is(byte[] name, int from, int to) {
+        return Arrays.equals(frame, from, to, name, 0, name.length);
+    }
+
+    private int skipWhitespace(int i, int end) {
+        while (i < end && (frame[i] == ' ' || frame[i] == '\n' || frame[i] == '\r' || frame[i] == '\t')) i++;
+        return i;
+    }
+
+    /**
+     * @return The position of the closing quote of the string starting at i or -1, if it is not closed.
+     */
+    private int skipString(int i, int end) {
+        for (i++; i < end; i++) {
+            if (frame[i] == '\\') {
+                i++;
+            } else if (frame[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The position after the object, array or literal starting at i or -1, if it is not closed.
+     */
+    private int skipValue(int i, int end) {
+        var depth = 0;
+        for (; i < end; i++) {
+            var b = frame[i];
+            if (b == '"') {
+                i = skipString(i, end);
+                if (i < 0) return -1;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) return i;
+                if (--depth == 0) return i + 1;
+            } else if (b == ',' && depth == 0) {
+                return i;
+            }
+        }
+        return depth == 0 ? i : -1;
+    }
+}
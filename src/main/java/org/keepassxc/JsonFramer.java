@@ -0,0 +1,134 @@
+package org.keepassxc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Splits the byte stream received from the KeePassXC proxy into single JSON messages.
+ * The bytes are scanned exactly once: braces and brackets are counted outside of strings, so nested objects and
+ * several messages within one read are handled as well as messages that are split across reads.
+ * All characters that are relevant for framing are ASCII, so scanning UTF-8 encoded bytes is safe.
+ */
+final class JsonFramer {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] frame = new byte[INITIAL_CAPACITY];
+    private int length = 0;
+    private int depth = 0;
+    private boolean inString = false;
+    private boolean escaped = false;
+
+    /**
+     * Receives the bytes of a completed message. The bytes are only valid during the call, as the buffer is reused.
+     */
+    @FunctionalInterface
+    interface FrameHandler {
+        void frame(byte[] bytes, int offset, int length);
+    }
+
+    /**
+     * Scan the given bytes and hand every message completed by them over to the consumer as a String.
+     *
+     * @param bytes  The bytes received, between position and limit. They are consumed completely.
+     * @param frames Receives the completed messages in the order they were received.
+     * @see #feed(ByteBuffer, FrameHandler)
+     */
+    void feed(ByteBuffer bytes, Consumer<String> frames) {
+        feed(bytes, (frame, offset, length) -> frames.accept(new String(frame, offset, length, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Scan the given bytes and hand every message completed by them over to the consumer. Bytes that belong to a
+     * message that is not complete yet are kept until the next call.
+     *
+     * @param bytes  The bytes received, between position and limit. They are consumed completely.
+     * @param frames Receives the completed messages in the order they were received.
+     */
+    void feed(ByteBuffer bytes, FrameHandler frames) {
+        byte[] chunk;
+        int offset;
+        var end = bytes.remaining();
+        if (bytes.hasArray()) {
+            chunk = bytes.array();
+            offset = bytes.arrayOffset() + bytes.position();
+            end += offset;
+            bytes.position(bytes.limit());
+        } else {
+            chunk = new byte[end];
+            offset = 0;
+            bytes.get(chunk);
+        }
+
+        var start = offset;
+        for (var i = offset; i < end; i++) {
+            var b = chunk[i];
+            if (depth == 0) {
+                // skip whitespace and anything else between two messages
+                if (b != '{') continue;
+                start = i;
+                depth = 1;
+                continue;
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth == 0) {
+                complete(chunk, start, i + 1, frames);
+            }
+        }
+        if (depth > 0) {
+            append(chunk, start, end);
+        }
+    }
+
+    /**
+     * Check whether bytes of an incomplete message are kept.
+     *
+     * @return True, if the last bytes fed ended within a message.
+     */
+    boolean isPartial() {
+        return depth > 0;
+    }
+
+    /**
+     * Drop the incomplete message, e.g. after the connection was lost.
+     */
+    void reset() {
+        length = 0;
+        depth = 0;
+        inString = false;
+        escaped = false;
+    }
+
+    private void complete(byte[] chunk, int from, int to, FrameHandler frames) {
+        if (length == 0) {
+            // the whole message was received with this read, so there is no need to copy it
+            frames.frame(chunk, from, to - from);
+        } else {
+            append(chunk, from, to);
+            var completed = length;
+            length = 0;
+            frames.frame(frame, 0, completed);
+        }
+    }
+
+    private void append(byte[] chunk, int from, int to) {
+        var count = to - from;
+        if (length + count > frame.length) {
+            frame = Arrays.copyOf(frame, Math.max(frame.length * 2, length + count));
+        }
+        System.arraycopy(chunk, from, frame, length, count);
+        length += count;
+    }
+}
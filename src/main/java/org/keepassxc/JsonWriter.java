@@ -0,0 +1,228 @@
+package org.keepassxc;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Writes JSON as UTF-8 directly into a reusable byte array, without building JSONObjects or Strings first.
+ * Binary values can be written Base64 encoded, so the encrypted message goes straight into the message sent.
+ * Instances are not thread-safe and are meant to be reset and reused.
+ */
+final class JsonWriter {
+    private static final byte[] BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buffer;
+    private int length = 0;
+    private boolean firstField = true;
+
+    JsonWriter(int capacity) {
+        buffer = new byte[capacity];
+    }
+
+    /**
+     * Discard everything written so far. The content is overwritten with zeros, as it might contain passwords.
+     */
+    void reset() {
+        Arrays.fill(buffer, 0, length, (byte) 0);
+        length = 0;
+        firstField = true;
+    }
+
+    byte[] array() {
+        return buffer;
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Get the JSON written so far.
+     *
+     * @return A buffer backed by this writer. It is only valid until the writer is reset.
+     */
+    ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    JsonWriter beginObject() {
+        append((byte) '{');
+        firstField = true;
+        return this;
+    }
+
+    JsonWriter endObject() {
+        append((byte) '}');
+        firstField = false;
+        return this;
+    }
+
+    JsonWriter field(String name, Object value) {
+        name(name);
+        value(value);
+        return this;
+    }
+
+    /**
+     * Write a field with a Base64 encoded value.
+     *
+     * @param name  The name of the field.
+     * @param value The bytes to be encoded.
+     * @return This writer.
+     */
+    JsonWriter base64Field(String name, byte[] value) {
+        name(name);
+        append((byte) '"');
+        base64(value);
+        append((byte) '"');
+        return this;
+    }
+
+    /**
+     * Write a JSON object with the entries of the map.
+     *
+     * @param map The entries. Supported values are Strings, Booleans, Numbers, Maps, Collections, JSONObjects,
+     *            JSONArrays and null.
+     * @return This writer.
+     */
+    JsonWriter object(Map<?, ?> map) {
+        beginObject();
+        for (var entry : map.entrySet()) {
+            field(entry.getKey().toString(), entry.getValue());
+        }
+        return endObject();
+    }
+
+    private void name(String name) {
+        if (!firstField) append((byte) ',');
+        firstField = false;
+        string(name);
+        append((byte) ':');
+    }
+
+    private void value(Object value) {
+        if (null == value) {
+            ascii("null");
+        } else if (value instanceof String s) {
+            string(s);
+        } else if (value instanceof Boolean || value instanceof Number) {
+            ascii(value.toString());
+        } else if (value instanceof Map<?, ?> m) {
+            object(m);
+        } else if (value instanceof Collection<?> c) {
+            append((byte) '[');
+            var first = true;
+            for (var element : c) {
+                if (!first) append((byte) ',');
+                first = false;
+                value(element);
+            }
+            append((byte) ']');
+        } else if (value instanceof JSONObject || value instanceof JSONArray) {
+            utf8(value.toString());
+        } else {
+            string(value.toString());
+        }
+        firstField = false;
+    }
+
+    private void string(String s) {
+        ensureCapacity(s.length() + 2);
+        append((byte) '"');
+        for (var i = 0; i < s.length(); i++) {
+            var c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                append((byte) '\\');
+                append((byte) c);
+            } else if (c < 0x20) {
+                switch (c) {
+                    case '\n' -> ascii("\\n");
+                    case '\r' -> ascii("\\r");
+                    case '\t' -> ascii("\\t");
+                    case '\b' -> ascii("\\b");
+                    case '\f' -> ascii("\\f");
+                    default -> {
+                        ascii("\\u00");
+                        append(HEX[c >> 4]);
+                        append(HEX[c & 0xF]);
+                    }
+                }
+            } else if (c < 0x80) {
+                append((byte) c);
+            } else if (c < 0x800) {
+                append((byte) (0xC0 | c >> 6));
+                append((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                var cp = Character.toCodePoint(c, s.charAt(++i));
+                append((byte) (0xF0 | cp >> 18));
+                append((byte) (0x80 | cp >> 12 & 0x3F));
+                append((byte) (0x80 | cp >> 6 & 0x3F));
+                append((byte) (0x80 | cp & 0x3F));
+            } else {
+                append((byte) (0xE0 | c >> 12));
+                append((byte) (0x80 | c >> 6 & 0x3F));
+                append((byte) (0x80 | c & 0x3F));
+            }
+        }
+        append((byte) '"');
+    }
+
+    private void base64(byte[] data) {
+        ensureCapacity((data.length + 2) / 3 * 4);
+        var i = 0;
+        for (; i + 2 < data.length; i += 3) {
+            var bits = (data[i] & 0xFF) << 16 | (data[i + 1] & 0xFF) << 8 | data[i + 2] & 0xFF;
+            buffer[length++] = BASE64[bits >>> 18];
+            buffer[length++] = BASE64[bits >>> 12 & 0x3F];
+            buffer[length++] = BASE64[bits >>> 6 & 0x3F];
+            buffer[length++] = BASE64[bits & 0x3F];
+        }
+        var rest = data.length - i;
+        if (rest > 0) {
+            var bits = (data[i] & 0xFF) << 16 | (rest == 2 ? (data[i + 1] & 0xFF) << 8 : 0);
+            buffer[length++] = BASE64[bits >>> 18];
+            buffer[length++] = BASE64[bits >>> 12 & 0x3F];
+            buffer[length++] = rest == 2 ? BASE64[bits >>> 6 & 0x3F] : (byte) '=';
+            buffer[length++] = '=';
+        }
+    }
+
+    private void ascii(String s) {
+        ensureCapacity(s.length());
+        for (var i = 0; i < s.length(); i++) {
+            buffer[length++] = (byte) s.charAt(i);
+        }
+    }
+
+    private void utf8(String s) {
+        var bytes = s.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        buffer[length++] = b;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > buffer.length) {
+            var grown = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + additional));
+            Arrays.fill(buffer, 0, length, (byte) 0);
+            buffer = grown;
+        }
+    }
+}
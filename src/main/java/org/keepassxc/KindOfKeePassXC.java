@@ -4,7 +4,9 @@ import org.apache.commons.lang3.SystemUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Utility class to determine the kind of the KeePassXC installation on Linux
@@ -12,55 +14,89 @@ import java.util.Optional;
 public class KindOfKeePassXC {
     private static final Logger LOG = LoggerFactory.getLogger(KindOfKeePassXC.class);
 
+    // The kinds of installation in the order they are preferred in, in case several KeePassXC processes are running
+    private static final KeePassXCType[] PRIORITY = {KeePassXCType.AppImage, KeePassXCType.Flatpak, KeePassXCType.Snap, KeePassXCType.Repo};
+
+    private static volatile KeePassXCType cached;
+
+    /**
+     * Determine the kind of the running KeePassXC installation. The process list is scanned once and the result is
+     * kept, so later calls don't scan it again. Nothing is kept, in case no KeePassXC process is running.
+     *
+     * @return The kind of the installation, an empty Optional, if no KeePassXC process is running or the OS is not Linux.
+     */
     public static Optional<KeePassXCType> determineType() {
         if (!SystemUtils.IS_OS_LINUX) {
             return Optional.empty();
         }
+        var type = cached;
+        if (null != type) {
+            return Optional.of(type);
+        }
+        var found = scan(ProcessHandle.allProcesses().map(ProcessHandle::info));
+        found.ifPresentOrElse(t -> {
+            LOG.debug("Found running KeePassXC installed as {}", t);
+            cached = t;
+        }, () -> LOG.debug("Could not find running KeePassXC application"));
+        return found;
+    }
 
-        ///home/<user>/Downloads/KeePassXC-2.7.4-x86_64.AppImage
-        var processHandle = ProcessHandle.allProcesses()
-                .filter(ph -> ph.info().command().isPresent() && ph.info().command().get().contains("KeePassXC")
-                        && ph.info().command().get().contains("AppImage"))
-                .findFirst();
+    /**
+     * Forget the kind of installation determined before, e.g. because KeePassXC was restarted from another installation.
+     */
+    public static void reset() {
+        cached = null;
+    }
 
-        if (processHandle.isPresent()) {
-            LOG.debug("Found running KeePassXC AppImage");
-            return Optional.of(KeePassXCType.AppImage);
+    /**
+     * Find the preferred kind of installation among the given processes in a single pass. The scan stops as soon as
+     * a process of the most preferred kind is found.
+     *
+     * @param processes The information about the running processes.
+     * @return The kind of installation, an empty Optional, if none of the processes is KeePassXC.
+     */
+    static Optional<KeePassXCType> scan(Stream<ProcessHandle.Info> processes) {
+        KeePassXCType best = null;
+        for (Iterator<ProcessHandle.Info> it = processes.iterator(); best != PRIORITY[0] && it.hasNext(); ) {
+            // The info is read from /proc once, so command and commandLine are taken from the same snapshot
+            var info = it.next();
+            var type = classify(info.command().orElse(""), info.commandLine().orElse(""));
+            if (null != type && (null == best || rank(type) < rank(best))) best = type;
         }
+        return Optional.ofNullable(best);
+    }
 
+    /**
+     * Tell the kind of installation from the command of a process.
+     *
+     * @param command     The executable of the process.
+     * @param commandLine The executable of the process together with its arguments.
+     * @return The kind of installation or null, if the process is not KeePassXC.
+     */
+    static KeePassXCType classify(String command, String commandLine) {
+        ///home/<user>/Downloads/KeePassXC-2.7.4-x86_64.AppImage
+        if (command.contains("KeePassXC") && command.contains("AppImage")) {
+            return KeePassXCType.AppImage;
+        }
+        if (!commandLine.contains("keepassxc")) {
+            return null;
+        }
         ///usr/bin/bwrap --args 38 keepassxc-wrapper
-        processHandle = ProcessHandle.allProcesses()
-                .filter(ph -> ph.info().commandLine().isPresent() && ph.info().commandLine().get().contains("keepassxc")
-                        && ph.info().commandLine().get().contains("bwrap"))
-                .findFirst();
-
-        if (processHandle.isPresent()) {
-            LOG.debug("Found running KeePassXC installed via Flatpak");
-            return Optional.of(KeePassXCType.Flatpak);
+        if (commandLine.contains("bwrap")) {
+            return KeePassXCType.Flatpak;
         }
-
         ///snap/keepassxc/1645/usr/bin/keepassxc
-        processHandle = ProcessHandle.allProcesses()
-                .filter(ph -> ph.info().commandLine().isPresent() && ph.info().commandLine().get().contains("keepassxc")
-                        && ph.info().commandLine().get().contains("snap"))
-                .findFirst();
-
-        if (processHandle.isPresent())  {
-            LOG.debug("Found running KeePassXC installed via Snap");
-            return Optional.of(KeePassXCType.Snap);
+        if (commandLine.contains("snap")) {
+            return KeePassXCType.Snap;
         }
-
         ///usr/bin/keepassxc, gets started as "keepassxc"
-        processHandle = ProcessHandle.allProcesses()
-                .filter(ph -> ph.info().commandLine().isPresent() && ph.info().commandLine().get().contains("keepassxc"))
-                .findFirst();
+        return KeePassXCType.Repo;
+    }
 
-        if (processHandle.isPresent()) {
-            LOG.debug("Found running KeePassXC installed from repository");
-            return Optional.of(KeePassXCType.Repo);
+    private static int rank(KeePassXCType type) {
+        for (var i = 0; i < PRIORITY.length; i++) {
+            if (PRIORITY[i] == type) return i;
         }
-
-        LOG.debug("Could not find running KeePassXC application");
-        return Optional.empty();
+        return PRIORITY.length;
     }
 }
@@ -1,8 +1,6 @@
 package org.keepassxc;
 
 import org.apache.commons.lang3.SystemUtils;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.purejava.KeepassProxyAccessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,48 +9,85 @@ import java.io.File;
 import java.io.IOException;
 import java.net.UnixDomainSocketAddress;
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
 import java.nio.channels.SocketChannel;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 public class LinuxMacConnection extends Connection {
 
     private static final Logger LOG = LoggerFactory.getLogger(LinuxMacConnection.class);
 
-    private final int BUFFER_SIZE = 1024;
+    private final int BUFFER_SIZE = 8192;
     private SocketChannel socket;
     private final UnixDomainSocketAddress socketAddress;
+    private volatile boolean socketProbing = false;
+    private volatile Path preferredSocket;
+    private volatile Consumer<Path> socketFoundListener;
     private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-    private final Charset charset = StandardCharsets.UTF_8;
-    private final CharsetDecoder charsetDecoder = charset.newDecoder();
-    private final CharBuffer charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+    private final JsonFramer framer = new JsonFramer();
+    private final SelectorEventLoop eventLoop;
 
     private static final String FLATPAK_PATH = "/app/org.keepassxc.KeePassXC";
     private static final String SNAP_PATH = System.getProperty("user.home") + "/snap/keepassxc/common";
+    private static final long PROBE_TIMEOUT_MS = 2000;
 
     public LinuxMacConnection() {
+        this(null, ExecutionStrategy.platformThreads());
+    }
+
+    /**
+     * Create a connection, that uses a non-blocking socket handled by the given event loop instead of
+     * a MessagePublisher thread of its own.
+     *
+     * @param eventLoop The event loop to use, or null to read from a blocking socket.
+     */
+    public LinuxMacConnection(SelectorEventLoop eventLoop) {
+        this(eventLoop, ExecutionStrategy.platformThreads());
+    }
+
+    /**
+     * Create a connection, that runs its tasks with the given strategy.
+     *
+     * @param eventLoop The event loop to use, or null to read from a blocking socket.
+     * @param execution The threads to read from the proxy, wait for responses and reconnect with.
+     */
+    public LinuxMacConnection(SelectorEventLoop eventLoop, ExecutionStrategy execution) {
+        super(execution);
         var socketPath = getSocketPath();
         this.socketAddress = UnixDomainSocketAddress.of(socketPath + "/" + PROXY_NAME);
+        this.eventLoop = eventLoop;
     }
 
     /**
      * Connect to the KeePassXC proxy via a Unix Domain Sockets (AF_UNIX)
-     * the proxy has opened.
+     * the proxy has opened. With socket probing enabled, all places the kinds of KeePassXC installations open their
+     * socket at are tried, see {@link #setSocketProbing(boolean)}.
      *
      * @throws IOException Connecting to the proxy failed due to technical reasons or the proxy wasn't started.
      */
     @Override
     public void connect() throws IOException {
         try {
-            socket = SocketChannel.open(socketAddress);
+            socket = socketProbing ? probe() : SocketChannel.open(socketAddress);
         } catch (IOException e) {
             LOG.error("Cannot connect to proxy. Is KeepassXC started?");
             throw e;
         }
+        publish(ConnectionEvent.CONNECTED);
         try {
-            lauchMessagePublisher();
+            if (null == eventLoop) {
+                lauchMessagePublisher();
+            } else {
+                eventLoop.register(socket, this::handleFrame, this::connectionLost);
+            }
             changePublicKeys();
         } catch (KeepassProxyAccessException e) {
             LOG.error(e.toString(), e.getCause());
@@ -60,47 +95,148 @@ public class LinuxMacConnection extends Connection {
     }
 
     @Override
-    protected void sendCleartextMessage(String msg) throws IOException {
+    protected void sendCleartextMessage(ByteBuffer msg) throws IOException {
+        sendCleartextMessageAsync(msg);
+    }
+
+    @Override
+    protected synchronized CompletableFuture<Void> sendCleartextMessageAsync(ByteBuffer msg) throws IOException {
         if (socket.isOpen()) {
-            LOG.trace("Sending message: {}", msg);
-            socket.write(ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8)));
+            if (LOG.isTraceEnabled()) LOG.trace("Sending message: {}", StandardCharsets.UTF_8.decode(msg.duplicate()));
+            if (null == eventLoop) {
+                socket.write(msg);
+                return CompletableFuture.completedFuture(null);
+            }
+            // the event loop writes later on, so it needs a copy of the pooled buffer
+            return eventLoop.write(socket, ByteBuffer.allocate(msg.remaining()).put(msg).flip());
         } else {
             throw new IOException("Socket closed");
         }
     }
 
     @Override
-    protected JSONObject getCleartextResponse() {
-        var raw = new StringBuilder();
-        while (true) {
-            try {
-                if (socket.read(buffer) == -1) break;
-            } catch (IOException e) {
-                LOG.error(e.toString(), e.getCause());
-                return new JSONObject();
+    protected boolean readCleartextResponses() {
+        try {
+            if (socket.read(buffer) == -1) {
+                framer.reset();
+                return false;
             }
-            buffer.flip();
-            charsetDecoder.decode(buffer, charBuffer, true);
-            charBuffer.flip();
-            raw.append(charBuffer);
-            buffer.compact();
-            if (charBuffer.toString().contains("}")) {
-                charBuffer.clear();
-                break;
-            } else {
-                charBuffer.clear();
+        } catch (IOException e) {
+            LOG.error(e.toString(), e.getCause());
+            framer.reset();
+            return false;
+        }
+        buffer.flip();
+        framer.feed(buffer, this::handleFrame);
+        buffer.clear();
+        return true;
+    }
+
+    @Override
+    protected void scheduleTimeout(CompletableFuture<?> request, long timeout, TimeUnit unit) {
+        if (null == eventLoop) {
+            super.scheduleTimeout(request, timeout, unit);
+        } else {
+            var timer = eventLoop.schedule(() -> request.completeExceptionally(new TimeoutException()), timeout, unit);
+            // drop the timer once the request is answered, so the timers don't pile up
+            request.whenComplete((result, e) -> timer.run());
+        }
+    }
+
+    /**
+     * Probe the candidates at the same time and connect to the first one, that accepts the connection.
+     *
+     * @return The connected socket.
+     * @throws IOException None of the candidates accepted the connection.
+     */
+    private SocketChannel probe() throws IOException {
+        var probe = SocketProbe.connect(getSocketCandidates(), executorService, PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (!probe.socket().equals(preferredSocket)) {
+            preferredSocket = probe.socket();
+            var listener = socketFoundListener;
+            if (null != listener) listener.accept(probe.socket());
+        }
+        return probe.channel();
+    }
+
+    /**
+     * Enable or disable socket probing. By default, the socket is looked for, where the kind of KeePassXC installation
+     * found opens it, when the connection is created. On Linux, the kind of installation is not determined from the
+     * running processes, in case exactly one of the places the kinds of installations open their socket at has a
+     * socket, that accepts connections; that socket is used then. Socket files left behind by a KeePassXC, that is not
+     * running anymore, are skipped. With probing enabled, all places the kinds of installations open their socket at
+     * are tried at the same time on connecting. The first one, that accepts, is used in this order: the preferred socket, the socket
+     * of the installation found and the others. This finds the socket, when the kind of installation can't be told
+     * from the running processes.
+     *
+     * @param socketProbing True to probe the sockets on connecting.
+     */
+    public void setSocketProbing(boolean socketProbing) {
+        this.socketProbing = socketProbing;
+    }
+
+    /**
+     * @return True, if the sockets are probed on connecting.
+     */
+    public boolean isSocketProbing() {
+        return socketProbing;
+    }
+
+    /**
+     * Set the socket to be probed first, e.g. the one, that accepted the connection on the last start.
+     *
+     * @param socket The socket or null, to not prefer any.
+     */
+    public void setPreferredSocket(Path socket) {
+        this.preferredSocket = socket;
+    }
+
+    /**
+     * @return The socket, that accepted the connection on probing last or was set to be preferred, an empty Optional,
+     * if there is none.
+     */
+    public Optional<Path> getPreferredSocket() {
+        return Optional.ofNullable(preferredSocket);
+    }
+
+    /**
+     * Set the listener, that is told, when probing connected to a socket other than the preferred one, e.g. to save
+     * it for the next start. It is called by the thread connecting, before the public keys are exchanged.
+     *
+     * @param listener Receives the socket, that accepted the connection, or null to remove the listener.
+     */
+    public void setSocketFoundListener(Consumer<Path> listener) {
+        this.socketFoundListener = listener;
+    }
+
+    /**
+     * Get the places KeePassXC opens its socket at, depending on the OS and the kind of installation:
+     * KeePassXC 2.7.2+ installed from a repo, run as an AppImage or installed via Flatpak create it in
+     * XDG_RUNTIME_DIR/app/org.keepassxc.KeePassXC/, older versions in XDG_RUNTIME_DIR, Snap in its common directory.
+     * Without XDG_RUNTIME_DIR and on Mac, TMPDIR is used.
+     *
+     * @return The candidates: the preferred socket, the socket of the kind of installation found and all others.
+     */
+    private List<Path> getSocketCandidates() {
+        var candidates = new LinkedHashSet<Path>();
+        if (null != preferredSocket) {
+            candidates.add(preferredSocket);
+        }
+        candidates.add(socketAddress.getPath());
+        if (SystemUtils.IS_OS_LINUX) {
+            var xdg = System.getenv("XDG_RUNTIME_DIR");
+            if (null != xdg) {
+                candidates.add(Path.of(xdg + FLATPAK_PATH, PROXY_NAME));
+                candidates.add(Path.of(xdg, PROXY_NAME));
             }
+            candidates.add(Path.of(SNAP_PATH, PROXY_NAME));
         }
-        LOG.trace("Reading message: {}", raw);
-        try {
-            var s = raw.toString();
-            // Test, if we received more than one message with the last read
-            if (s.length() - s.replace("}", "").length() > 1) throw new JSONException("");
-            return new JSONObject(raw.toString());
-        } catch (JSONException e) {
-            LOG.error("Message corrupted. Received: {}", raw);
-            return new JSONObject();
+        var tmp = System.getenv("TMPDIR");
+        if (null != tmp) {
+            candidates.add(Path.of(tmp, PROXY_NAME));
         }
+        candidates.add(Path.of("/tmp", PROXY_NAME));
+        return List.copyOf(candidates);
     }
 
     /**
@@ -110,6 +246,10 @@ public class LinuxMacConnection extends Connection {
      */
     private String getSocketPath() {
         if (SystemUtils.IS_OS_LINUX) {
+            var existing = getExistingSocketPath();
+            if (null != existing) {
+                return existing;
+            }
             var type = KindOfKeePassXC.determineType();
             if (type.isEmpty()) {
                 return getXDGPath();
@@ -137,6 +277,40 @@ public class LinuxMacConnection extends Connection {
         }
     }
 
+    /**
+     * Look for the socket in the directories the kinds of KeePassXC installations create it in, so that the process
+     * list does not need to be scanned. Sockets, that refuse a connection, are stale and skipped.
+     *
+     * @return The directory, in case a socket, that accepts connections, exists in exactly one of them, null otherwise.
+     */
+    private String getExistingSocketPath() {
+        var candidates = new LinkedHashSet<String>();
+        var xdg = System.getenv("XDG_RUNTIME_DIR");
+        if (null != xdg) {
+            candidates.add(xdg + FLATPAK_PATH);
+            candidates.add(xdg);
+        }
+        candidates.add(SNAP_PATH);
+        var existing = candidates.stream()
+                .filter(dir -> acceptsConnection(Path.of(dir, PROXY_NAME)))
+                .toList();
+        if (existing.size() != 1) {
+            return null;
+        }
+        LOG.debug("Found socket in {}", existing.get(0));
+        return existing.get(0);
+    }
+
+    private static boolean acceptsConnection(Path socket) {
+        if (!Files.exists(socket)) return false;
+        try (var channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return channel.isConnected();
+        } catch (IOException e) {
+            LOG.debug("Skipping socket {}, that does not accept connections: {}", socket, e.toString());
+            return false;
+        }
+    }
+
     /**
      * Find the XDG_RUNTIME_DIR KeePassXC is using.
      * When installed from a repo or run as an AppImage, it depends on the KeePassXC version, where it creates its socket:
@@ -178,7 +352,9 @@ public class LinuxMacConnection extends Connection {
     @Override
     public void close() throws Exception {
         if (null != messagePublisher) messagePublisher.doStop();
-        executorService.shutdown();
+        publish(ConnectionEvent.DISCONNECTED);
+        events.close();
+        execution.shutdown();
         if (isConnected()) socket.close();
     }
 }
@@ -0,0 +1,240 @@
+package org.keepassxc;
+
+import org.json.JSONObject;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * The requests sent to KeePassXC that are waiting for their responses, indexed by the nonce the response is expected
+ * to carry. The store is bounded: requests older than the maximum age are evicted by a timer, that runs as long as
+ * requests are waiting, and evicted requests fail with a TimeoutException. In case the store is full nevertheless,
+ * new requests are rejected, so requests that are still waiting for their responses are never given up early.
+ * Responses that no request is waiting for, e.g. late answers to requests that timed out, are counted and dropped.
+ * <p>
+ * Every request gets a sequence number, when it is registered. Requests need to be registered in the order they are
+ * sent, so error responses, that carry no nonce, can be matched to the oldest request of their action: KeePassXC
+ * answers requests in the order it receives them.
+ */
+final class ResponseStore {
+    static final int DEFAULT_CAPACITY = 256;
+    static final long DEFAULT_MAX_AGE_S = 600;
+    private static final long SWEEP_INTERVAL_NS = TimeUnit.SECONDS.toNanos(30);
+    static final String TOO_MANY_REQUESTS = "Too many requests waiting for responses";
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final long maxAgeNanos;
+    private final long sweepIntervalNanos;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean sweepScheduled = new AtomicBoolean();
+    private final LongAdder orphaned = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Identifies the response to a request: KeePassXC answers with the incremented nonce of the request.
+     * The 24 bytes of the nonce are kept as three longs, so responses are matched without Base64 encoding.
+     *
+     * @param first  Bytes 0 to 7 of the nonce the response is expected to carry.
+     * @param second Bytes 8 to 15 of the nonce.
+     * @param third  Bytes 16 to 23 of the nonce.
+     */
+    record Key(long first, long second, long third) {
+        static Key of(byte[] nonce) {
+            return new Key(toLong(nonce, 0), toLong(nonce, 8), toLong(nonce, 16));
+        }
+
+        private static long toLong(byte[] bytes, int offset) {
+            var value = 0L;
+            for (var i = offset + 7; i >= offset; i--) {
+                value = value << 8 | (bytes[i] & 0xFF);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A request waiting for its response.
+     *
+     * @param action   The action of the request. The response needs to carry the same action.
+     * @param response The future that gets completed with the response.
+     * @param created  The time the request was registered, as given by System.nanoTime().
+     * @param sequence The position of the request in the order the requests were sent.
+     */
+    private record Entry(String action, CompletableFuture<JSONObject> response, long created, long sequence) {
+    }
+
+    /**
+     * Create a store with the default bounds and without a timer: requests that are too old are only evicted,
+     * when the store is full.
+     */
+    ResponseStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_AGE_S, TimeUnit.SECONDS, null);
+    }
+
+    /**
+     * Create a store with the default bounds.
+     *
+     * @param scheduler Runs the timer evicting requests, that are too old.
+     */
+    ResponseStore(ScheduledExecutorService scheduler) {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_AGE_S, TimeUnit.SECONDS, scheduler);
+    }
+
+    /**
+     * Create a store.
+     *
+     * @param capacity  The maximum number of requests waiting for their responses.
+     * @param maxAge    The time a request may wait for its response, before it is evicted.
+     * @param unit      The unit of maxAge.
+     * @param scheduler Runs the timer evicting requests, that are too old, or null to evict them only,
+     *                  when the store is full.
+     */
+    ResponseStore(int capacity, long maxAge, TimeUnit unit, ScheduledExecutorService scheduler) {
+        this.capacity = capacity;
+        this.maxAgeNanos = unit.toNanos(maxAge);
+        this.sweepIntervalNanos = Math.min(SWEEP_INTERVAL_NS, maxAgeNanos);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Register a request, that is about to be sent. Requests need to be registered in the order they are sent.
+     *
+     * @param key    The key of the expected response.
+     * @param action The action of the request.
+     * @return The future that gets completed with the response.
+     * @throws IllegalStateException Too many requests are waiting for their responses, the request must not be sent.
+     */
+    CompletableFuture<JSONObject> register(Key key, String action) {
+        var now = System.nanoTime();
+        if (entries.size() >= capacity) {
+            evictExpired(now);
+            if (entries.size() >= capacity) throw new IllegalStateException(TOO_MANY_REQUESTS);
+        }
+        var entry = new Entry(action, new CompletableFuture<>(), now, sequence.getAndIncrement());
+        entries.put(key, entry);
+        entry.response().whenComplete((response, t) -> {
+            if (null != t) entries.remove(key, entry);
+        });
+        scheduleSweep();
+        return entry.response();
+    }
+
+    /**
+     * Remove the request the response with the given key answers.
+     *
+     * @param key    The key of the response received.
+     * @param action Tests, whether the action of the request matches the action of the response.
+     * @return The future of the request or null, if no request is waiting for this response.
+     */
+    CompletableFuture<JSONObject> take(Key key, Predicate<String> action) {
+        var entry = entries.get(key);
+        if (null != entry && action.test(entry.action()) && entries.remove(key, entry)) {
+            return entry.response();
+        }
+        orphaned.increment();
+        return null;
+    }
+
+    /**
+     * Remove the oldest request with the given action. Error responses don't carry a nonce, so they can only be
+     * matched by their action. As KeePassXC answers in order, an error answers the request of this action, that
+     * was sent first and is still waiting.
+     *
+     * @param action The action of the response received.
+     * @return The future of the request or null, if no request with this action is waiting.
+     */
+    CompletableFuture<JSONObject> takeOldest(String action) {
+        while (true) {
+            Key oldestKey = null;
+            Entry oldest = null;
+            for (var mapping : entries.entrySet()) {
+                var entry = mapping.getValue();
+                if (entry.action().equals(action) && (null == oldest || entry.sequence() < oldest.sequence())) {
+                    oldestKey = mapping.getKey();
+                    oldest = entry;
+                }
+            }
+            if (null == oldest) {
+                orphaned.increment();
+                return null;
+            }
+            // Retry, in case the request completed meanwhile, e.g. by a timeout
+            if (entries.remove(oldestKey, oldest)) {
+                return oldest.response();
+            }
+        }
+    }
+
+    /**
+     * Fail all waiting requests, e.g. after the connection was lost.
+     *
+     * @param cause The reason.
+     */
+    void failAll(Throwable cause) {
+        entries.values().forEach(entry -> entry.response().completeExceptionally(cause));
+    }
+
+    /**
+     * @return The number of requests waiting for their responses.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of responses dropped, because no request was waiting for them.
+     */
+    long getOrphanedCount() {
+        return orphaned.sum();
+    }
+
+    /**
+     * @return The number of requests evicted, because they were too old.
+     */
+    long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * Start the timer, unless it is running already.
+     */
+    private void scheduleSweep() {
+        if (null == scheduler || !sweepScheduled.compareAndSet(false, true)) return;
+        try {
+            scheduler.schedule(this::sweep, sweepIntervalNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // the connection is closed
+            sweepScheduled.set(false);
+        }
+    }
+
+    /**
+     * Evict the requests older than the maximum age. Run by the timer, that keeps running as long as requests
+     * are waiting.
+     */
+    void sweep() {
+        sweepScheduled.set(false);
+        evictExpired(System.nanoTime());
+        if (!entries.isEmpty()) scheduleSweep();
+    }
+
+    private void evictExpired(long now) {
+        for (var mapping : entries.entrySet()) {
+            var entry = mapping.getValue();
+            if (now - entry.created() > maxAgeNanos && entries.remove(mapping.getKey(), entry)) {
+                evicted.increment();
+                entry.response().completeExceptionally(new TimeoutException());
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.keepassxc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single thread that handles reading, writing and request timeouts for any number of
+ * {@link org.keepassxc.LinuxMacConnection LinuxMacConnections} with non-blocking sockets.
+ * Connections using the event loop don't need a MessagePublisher thread of their own.
+ * The event loop is meant to be shared and needs to be closed by its owner, after all connections using it are closed.
+ */
+public class SelectorEventLoop implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SelectorEventLoop.class);
+
+    private final int BUFFER_SIZE = 8192;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final PriorityQueue<Timer> timers = new PriorityQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private volatile boolean running = true;
+
+    private record Write(ByteBuffer message, CompletableFuture<Void> written) {
+    }
+
+    private record Timer(long deadline, Runnable task) implements Comparable<Timer> {
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+
+    /**
+     * State of a socket registered with the event loop. Only accessed by the event loop thread.
+     */
+    private static final class Registration {
+        private final SocketChannel channel;
+        private final JsonFramer framer = new JsonFramer();
+        private final JsonFramer.FrameHandler frames;
+        private final Runnable closed;
+        private final Queue<Write> writes = new ArrayDeque<>();
+        private SelectionKey key;
+
+        private Registration(SocketChannel channel, JsonFramer.FrameHandler frames, Runnable closed) {
+            this.channel = channel;
+            this.frames = frames;
+            this.closed = closed;
+        }
+    }
+
+    /**
+     * Open a selector and start the event loop thread.
+     *
+     * @throws IOException The selector could not be opened.
+     */
+    public SelectorEventLoop() throws IOException {
+        selector = Selector.open();
+        thread = new Thread(this::run, "keepassxc-event-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Register a connected socket. The socket is switched to non-blocking mode.
+     *
+     * @param channel The socket to read from and write to.
+     * @param frames  Receives the bytes of every message read from the socket. Called on the event loop thread.
+     * @param closed  Called on the event loop thread, in case the other side closed the socket or reading failed.
+     * @throws IOException The socket could not be switched to non-blocking mode.
+     */
+    void register(SocketChannel channel, JsonFramer.FrameHandler frames, Runnable closed) throws IOException {
+        channel.configureBlocking(false);
+        var registration = new Registration(channel, frames, closed);
+        execute(() -> {
+            try {
+                registration.key = channel.register(selector, SelectionKey.OP_READ, registration);
+            } catch (ClosedChannelException e) {
+                LOG.debug("Socket closed before it could be registered");
+            }
+        });
+    }
+
+    /**
+     * Write a message to a registered socket. Messages are written in the order this method is called.
+     *
+     * @param channel The socket to write to.
+     * @param message The message to be written.
+     * @return A future, that completes, once the message was written completely. It fails with an IOException, in case
+     * the socket is not registered or was closed, before the message could be written.
+     */
+    CompletableFuture<Void> write(SocketChannel channel, ByteBuffer message) {
+        var written = new CompletableFuture<Void>();
+        execute(() -> {
+            var key = channel.keyFor(selector);
+            if (null == key || !key.isValid()) {
+                LOG.debug("Dropping message for a socket, that is not registered");
+                written.completeExceptionally(new IOException("Socket not registered"));
+                return;
+            }
+            var registration = (Registration) key.attachment();
+            registration.writes.add(new Write(message, written));
+            flush(registration);
+        });
+        return written;
+    }
+
+    /**
+     * Run a task on the event loop thread after the given delay.
+     *
+     * @param task  The task to run. It must not block.
+     * @param delay The delay.
+     * @param unit  The unit of the delay.
+     * @return Cancels the task and drops its timer, in case it did not run yet.
+     */
+    Runnable schedule(Runnable task, long delay, TimeUnit unit) {
+        var timer = new Timer(System.nanoTime() + unit.toNanos(delay), task);
+        execute(() -> timers.add(timer));
+        return () -> execute(() -> timers.remove(timer));
+    }
+
+    /**
+     * @return The number of timers, that did not run yet and were not cancelled. Only called on the event loop thread.
+     */
+    int getTimerCount() {
+        return timers.size();
+    }
+
+    private void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select(runDueTimers());
+                Runnable task;
+                while (null != (task = tasks.poll())) {
+                    task.run();
+                }
+                try {
+                    for (var key : selector.selectedKeys()) {
+                        var registration = (Registration) key.attachment();
+                        if (key.isValid() && key.isReadable()) read(registration);
+                        if (key.isValid() && key.isWritable()) flush(registration);
+                    }
+                } finally {
+                    // a failing frame handler must not leave keys behind, that are handled again on the next round
+                    selector.selectedKeys().clear();
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.error(e.toString(), e.getCause());
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            LOG.error(e.toString(), e.getCause());
+        }
+        LOG.debug("Event loop stopped");
+    }
+
+    /**
+     * Run all timers that are due.
+     *
+     * @return The time in milliseconds until the next timer is due, 0 if there is none.
+     */
+    private long runDueTimers() {
+        while (!timers.isEmpty()) {
+            var wait = timers.peek().deadline() - System.nanoTime();
+            if (wait > 0) return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+            timers.poll().task().run();
+        }
+        return 0;
+    }
+
+    private void read(Registration registration) {
+        try {
+            int read;
+            while ((read = registration.channel.read(readBuffer)) > 0) {
+                readBuffer.flip();
+                registration.framer.feed(readBuffer, registration.frames);
+                readBuffer.clear();
+            }
+            if (read == -1) close(registration);
+        } catch (IOException e) {
+            LOG.error(e.toString(), e.getCause());
+            close(registration);
+        } finally {
+            // the buffer is shared by all sockets, so nothing read must be left in it
+            readBuffer.clear();
+        }
+    }
+
+    private void flush(Registration registration) {
+        try {
+            while (!registration.writes.isEmpty()) {
+                var write = registration.writes.peek();
+                registration.channel.write(write.message());
+                if (write.message().hasRemaining()) break;
+                registration.writes.poll().written().complete(null);
+            }
+            if (registration.key.isValid()) {
+                registration.key.interestOps(registration.writes.isEmpty()
+                        ? SelectionKey.OP_READ
+                        : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            LOG.error(e.toString(), e.getCause());
+            close(registration);
+        }
+    }
+
+    private void close(Registration registration) {
+        registration.key.cancel();
+        Write write;
+        while (null != (write = registration.writes.poll())) {
+            write.written().completeExceptionally(new IOException("Socket closed"));
+        }
+        registration.framer.reset();
+        registration.closed.run();
+    }
+
+    /**
+     * Stop the event loop thread and close the selector.
+     *
+     * @throws InterruptedException Interrupted while waiting for the event loop thread to stop.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        if (Thread.currentThread() != thread) thread.join();
+    }
+}
@@ -0,0 +1,106 @@
+package org.keepassxc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Connects to the first of several candidate sockets, that accepts the connection. The candidates are probed at
+ * the same time, so the time to connect does not depend on the number of candidates. In case several candidates
+ * accept, the one listed first wins, so the outcome does not depend on which probe happens to finish first.
+ */
+final class SocketProbe {
+    private static final Logger LOG = LoggerFactory.getLogger(SocketProbe.class);
+
+    /**
+     * @param socket  The socket that accepted the connection.
+     * @param channel The connected channel.
+     */
+    record Result(Path socket, SocketChannel channel) {
+    }
+
+    private SocketProbe() {
+    }
+
+    /**
+     * Probe the candidates, that exist, and connect to the first one that accepts. This returns as soon as a candidate
+     * accepted and all candidates listed before it failed, so it does not wait for the candidates listed after it.
+     * In case the timeout elapses before that, the first candidate in the list, that accepted by then, is used.
+     *
+     * @param candidates The sockets to probe, in the order they are preferred in.
+     * @param executor   Runs the probes.
+     * @param timeout    The time to wait for the probes to finish.
+     * @param unit       The unit of timeout.
+     * @return The socket connected to.
+     * @throws IOException None of the candidates accepted a connection within the timeout.
+     */
+    static Result connect(List<Path> candidates, Executor executor, long timeout, TimeUnit unit) throws IOException {
+        var existing = candidates.stream().filter(Files::exists).toList();
+        if (existing.isEmpty()) {
+            throw new IOException("No socket found at " + candidates);
+        }
+        var probes = existing.stream()
+                .map(socket -> CompletableFuture.supplyAsync(() -> open(socket), executor))
+                .toList();
+        var deadline = System.nanoTime() + unit.toNanos(timeout);
+        var winner = -1;
+        for (var i = 0; i < probes.size() && winner < 0; i++) {
+            try {
+                probes.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                winner = i;
+            } catch (ExecutionException e) {
+                // the candidate did not accept, try the next one
+            } catch (TimeoutException | InterruptedException e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                winner = firstAccepted(probes, i + 1);
+                break;
+            }
+        }
+        for (var i = 0; i < probes.size(); i++) {
+            // close the connections of the losers, even if they are established only later on
+            if (i != winner) probes.get(i).thenAccept(SocketProbe::close);
+        }
+        if (winner < 0) {
+            throw new IOException("No socket accepted a connection at " + existing);
+        }
+        LOG.debug("Connected to socket {}", existing.get(winner));
+        return new Result(existing.get(winner), probes.get(winner).join());
+    }
+
+    private static int firstAccepted(List<CompletableFuture<SocketChannel>> probes, int from) {
+        for (var i = from; i < probes.size(); i++) {
+            var probe = probes.get(i);
+            if (probe.isDone() && !probe.isCompletedExceptionally()) return i;
+        }
+        return -1;
+    }
+
+    private static SocketChannel open(Path socket) {
+        try {
+            return SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            LOG.debug("Socket {} does not accept connections: {}", socket, e.toString());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.debug(e.toString(), e.getCause());
+        }
+    }
+}
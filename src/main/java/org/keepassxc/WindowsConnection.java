@@ -1,17 +1,12 @@
 package org.keepassxc;
 
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.purejava.KeepassProxyAccessException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.CharBuffer;
 import java.nio.channels.AsynchronousFileChannel;
-import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -25,9 +20,20 @@ public class WindowsConnection extends Connection {
     private final int BUFFER_SIZE = 8192;
     private AsynchronousFileChannel pipe;
     private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-    private final Charset charset = StandardCharsets.UTF_8;
-    private final CharsetDecoder charsetDecoder = charset.newDecoder();
-    private final CharBuffer charBuffer = CharBuffer.allocate(BUFFER_SIZE);
+    private final JsonFramer framer = new JsonFramer();
+
+    public WindowsConnection() {
+        this(ExecutionStrategy.platformThreads());
+    }
+
+    /**
+     * Create a connection, that runs its tasks with the given strategy.
+     *
+     * @param execution The threads to read from the proxy, wait for responses and reconnect with.
+     */
+    public WindowsConnection(ExecutionStrategy execution) {
+        super(execution);
+    }
 
     /**
      * Connect to the KeePassXC proxy via a Windows named pipe the proxy has opened.
@@ -43,6 +49,7 @@ public class WindowsConnection extends Connection {
             LOG.error("Cannot connect to proxy. Is KeepassXC started?");
             throw e;
         }
+        publish(ConnectionEvent.CONNECTED);
         try {
             lauchMessagePublisher();
             changePublicKeys();
@@ -52,40 +59,40 @@ public class WindowsConnection extends Connection {
     }
 
     @Override
-    protected void sendCleartextMessage(String msg) throws IOException {
+    protected synchronized void sendCleartextMessage(ByteBuffer msg) throws IOException {
         if (pipe.isOpen()) {
-            LOG.trace("Sending message: {}", msg);
-            pipe.write(ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8)), 0);
+            if (LOG.isTraceEnabled()) LOG.trace("Sending message: {}", StandardCharsets.UTF_8.decode(msg.duplicate()));
+            // Wait for the write to finish, so that messages sent by different threads don't interleave
+            try {
+                while (msg.hasRemaining()) {
+                    pipe.write(msg, 0).get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
         } else {
             throw new IOException("Pipe closed");
         }
     }
 
     @Override
-    protected JSONObject getCleartextResponse() {
-        var raw = new StringBuilder();
-        long position = 0;
+    protected boolean readCleartextResponses() {
         try {
-            pipe.read(buffer, position).get();
+            if (pipe.read(buffer, 0).get() == -1) {
+                framer.reset();
+                return false;
+            }
         } catch (InterruptedException | ExecutionException e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
             LOG.error(e.toString(), e.getCause());
+            framer.reset();
+            return false;
         }
         buffer.flip();
-        charsetDecoder.decode(buffer, charBuffer, true);
-        charBuffer.flip();
-        raw.append(charBuffer);
-        buffer.compact();
-        charBuffer.clear();
-        LOG.trace("Reading message: {}", raw);
-        try {
-            var s = raw.toString();
-            // Test, if we received more than one message with the last read
-            if (s.length() - s.replace("}", "").length() > 1) throw new JSONException("");
-            return new JSONObject(raw.toString());
-        } catch (JSONException e) {
-            LOG.error("Message corrupted. Received: {}", raw);
-            return new JSONObject();
-        }
+        framer.feed(buffer, this::handleFrame);
+        buffer.clear();
+        return true;
     }
 
     @Override
@@ -101,7 +108,9 @@ public class WindowsConnection extends Connection {
     @Override
     public void close() throws Exception {
         if (null != messagePublisher) messagePublisher.doStop();
-        executorService.shutdown();
+        publish(ConnectionEvent.DISCONNECTED);
+        events.close();
+        execution.shutdown();
         if (isConnected()) pipe.close();
     }
 }
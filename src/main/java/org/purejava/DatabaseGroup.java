@@ -0,0 +1,48 @@
+package org.purejava;
+
+import java.util.List;
+
+/**
+ * A group of the KeePassXC database, as contained in a {@link org.purejava.GroupIndex GroupIndex}.
+ */
+public class DatabaseGroup {
+    private final String name;
+    private final String uuid;
+    private final String path;
+    private final List<DatabaseGroup> children;
+
+    /**
+     * @param name     The name of the group.
+     * @param uuid     The groupUuid of the group.
+     * @param path     The names of the group and its parents below the root group, separated by a slash,
+     *                 e.g. level1/level2. The path of the root group is empty.
+     * @param children The groups directly contained in this group.
+     */
+    DatabaseGroup(String name, String uuid, String path, List<DatabaseGroup> children) {
+        this.name = name;
+        this.uuid = uuid;
+        this.path = path;
+        this.children = List.copyOf(children);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public List<DatabaseGroup> getChildren() {
+        return children;
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + uuid + ")";
+    }
+}
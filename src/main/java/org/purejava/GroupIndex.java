@@ -0,0 +1,148 @@
+package org.purejava;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+
+/**
+ * An immutable index of the groups of the KeePassXC database, built once from the response to get-database-groups.
+ * Groups are looked up by their path, e.g. level1/level2, as used by
+ * {@link org.purejava.KeepassProxyAccess#createNewGroup(String) createNewGroup}, or by their groupUuid.
+ * Unlike {@link org.purejava.KeepassProxyAccess#databaseGroupsToMap(JSONObject) databaseGroupsToMap}, groups with
+ * the same name under different parents are kept apart.
+ */
+public final class GroupIndex {
+    static final GroupIndex EMPTY = new GroupIndex(null, Map.of(), Map.of());
+
+    private final DatabaseGroup root;
+    private final Map<String, DatabaseGroup> byPath;
+    private final Map<String, DatabaseGroup> byUuid;
+
+    private GroupIndex(DatabaseGroup root, Map<String, DatabaseGroup> byPath, Map<String, DatabaseGroup> byUuid) {
+        this.root = root;
+        this.byPath = byPath;
+        this.byUuid = byUuid;
+    }
+
+    /**
+     * Build the index.
+     *
+     * @param response The response to get-database-groups.
+     * @return The index, an empty index, if the response contains no groups.
+     */
+    static GroupIndex of(JSONObject response) {
+        var groups = response.optJSONObject("groups");
+        var rootGroups = null == groups ? null : groups.optJSONArray("groups");
+        var rootGroup = null == rootGroups ? null : rootGroups.optJSONObject(0);
+        if (null == rootGroup) return EMPTY;
+        var byPath = new HashMap<String, DatabaseGroup>();
+        var byUuid = new HashMap<String, DatabaseGroup>();
+        var root = new DatabaseGroup(rootGroup.optString("name"), rootGroup.optString("uuid"), "",
+                children(rootGroup.optJSONArray("children"), "", byPath, byUuid));
+        byUuid.put(root.getUuid(), root);
+        return new GroupIndex(root, Map.copyOf(byPath), Map.copyOf(byUuid));
+    }
+
+    private static List<DatabaseGroup> children(JSONArray array, String parentPath,
+                                                Map<String, DatabaseGroup> byPath, Map<String, DatabaseGroup> byUuid) {
+        if (null == array) return List.of();
+        var children = new ArrayList<DatabaseGroup>(array.length());
+        for (var i = 0; i < array.length(); i++) {
+            var child = array.optJSONObject(i);
+            if (null == child) continue;
+            var name = child.optString("name");
+            var path = parentPath.isEmpty() ? name : parentPath + "/" + name;
+            var group = new DatabaseGroup(name, child.optString("uuid"), path,
+                    children(child.optJSONArray("children"), path, byPath, byUuid));
+            // KeePassXC allows siblings with the same name, the first one is found by its path
+            byPath.putIfAbsent(path, group);
+            byUuid.put(group.getUuid(), group);
+            children.add(group);
+        }
+        return children;
+    }
+
+    /**
+     * Look up a group by its path.
+     *
+     * @param path The names of the group and its parents below the root group, separated by a slash, e.g. level1/level2.
+     *             Leading and trailing slashes are ignored.
+     * @return The group, an empty Optional, if there is no group with the given path.
+     */
+    public Optional<DatabaseGroup> findByPath(String path) {
+        return Optional.ofNullable(byPath.get(normalize(path)));
+    }
+
+    /**
+     * Remove leading and trailing slashes from a path.
+     *
+     * @param path The path of a group.
+     * @return The path, as it is used as key of the index.
+     */
+    static String normalize(String path) {
+        var start = 0;
+        var end = path.length();
+        while (start < end && path.charAt(start) == '/') start++;
+        while (end > start && path.charAt(end - 1) == '/') end--;
+        return path.substring(start, end);
+    }
+
+    /**
+     * Drop the paths, that are parents of other paths, as creating level1/level2 creates level1 too.
+     *
+     * @param paths Normalized paths.
+     * @return The paths, that are no parents of other paths, in ascending order.
+     */
+    static List<String> withoutParents(NavigableSet<String> paths) {
+        var result = new ArrayList<String>();
+        for (var path : paths) {
+            var next = paths.ceiling(path + "/");
+            if (null == next || !next.startsWith(path + "/")) result.add(path);
+        }
+        return result;
+    }
+
+    /**
+     * Look up a group by its groupUuid.
+     *
+     * @param uuid The groupUuid of the group.
+     * @return The group, an empty Optional, if there is no group with the given groupUuid.
+     */
+    public Optional<DatabaseGroup> findByUuid(String uuid) {
+        return Optional.ofNullable(byUuid.get(uuid));
+    }
+
+    /**
+     * @return The root group of the database, an empty Optional, if the groups could not be retrieved.
+     */
+    public Optional<DatabaseGroup> getRoot() {
+        return Optional.ofNullable(root);
+    }
+
+    /**
+     * @return The groups on the root level, i.e. the children of the root group.
+     */
+    public List<DatabaseGroup> getGroups() {
+        return null == root ? List.of() : root.getChildren();
+    }
+
+    /**
+     * @return True, if the index contains no groups at all.
+     */
+    public boolean isEmpty() {
+        return null == root;
+    }
+
+    /**
+     * @return The number of groups below the root group.
+     */
+    public int size() {
+        return byUuid.size() - (null == root ? 0 : 1);
+    }
+}
@@ -0,0 +1,73 @@
+package org.purejava;
+
+import org.json.JSONObject;
+import org.keepassxc.ConnectionEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the {@link org.purejava.GroupIndex GroupIndex} of the KeePassXC database, so that groups are looked up in
+ * memory instead of requesting and traversing all groups every time. The index is built again after a group was
+ * created or the database was unlocked, which includes switching to another database.
+ */
+final class GroupIndexCache implements Flow.Subscriber<ConnectionEvent> {
+    private CompletableFuture<GroupIndex> index;
+
+    /**
+     * Get the cached index or build it from the groups loaded. Concurrent callers share the same load.
+     * An empty index is not cached, as it is returned for failed requests as well.
+     *
+     * @param loader Requests the groups from KeePassXC.
+     * @return A future that completes with the index.
+     */
+    CompletableFuture<GroupIndex> get(Supplier<CompletableFuture<JSONObject>> loader) {
+        CompletableFuture<GroupIndex> loading;
+        synchronized (this) {
+            if (null != index) return index;
+            loading = new CompletableFuture<>();
+            index = loading;
+        }
+        loader.get().thenApply(GroupIndex::of).whenComplete((groups, t) -> {
+            if (null != t || groups.isEmpty()) drop(loading);
+            if (null != t) {
+                loading.completeExceptionally(t);
+            } else {
+                loading.complete(groups);
+            }
+        });
+        return loading;
+    }
+
+    private synchronized void drop(CompletableFuture<GroupIndex> loaded) {
+        if (index == loaded) index = null;
+    }
+
+    /**
+     * Drop the index, it is built again on the next access.
+     */
+    synchronized void invalidate() {
+        index = null;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ConnectionEvent event) {
+        if (event == ConnectionEvent.DATABASE_UNLOCKED) invalidate();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        invalidate();
+    }
+
+    @Override
+    public void onComplete() {
+        invalidate();
+    }
+}
@@ -0,0 +1,16 @@
+package org.purejava;
+
+/**
+ * Receives the progress of {@link org.purejava.KeepassProxyAccess#importLogins(java.util.stream.Stream, int, ImportProgress)}.
+ */
+@FunctionalInterface
+public interface ImportProgress {
+    /**
+     * Called, whenever storing a login completed.
+     *
+     * @param result    The outcome for the login.
+     * @param completed The number of logins completed so far.
+     * @param total     The number of logins to be stored, -1 if the stream of logins does not know its size in advance.
+     */
+    void update(ImportResult result, int completed, int total);
+}
@@ -0,0 +1,46 @@
+package org.purejava;
+
+import java.util.stream.Stream;
+
+/**
+ * This holds the outcome of storing a single {@link org.purejava.LoginRecord} with
+ * {@link org.purejava.KeepassProxyAccess#importLogins(Stream, int, ImportProgress)}.
+ * KeePassXC does not report the uuid of a newly created entry, it can be looked up with
+ * {@link org.purejava.KeepassProxyAccess#loginExists(String, String, boolean, java.util.List, String) loginExists}.
+ */
+public class ImportResult {
+    private final LoginRecord login;
+    private final boolean success;
+    private final String errorCode;
+    private final String error;
+
+    /**
+     * The outcome of storing a login.
+     * @param login     The login that was to be stored.
+     * @param success   True, if KeePassXC stored the login.
+     * @param errorCode The error code KeePassXC reported or null, if there was none.
+     * @param error     The reason the login could not be stored or null, if it was stored.
+     */
+    public ImportResult(LoginRecord login, boolean success, String errorCode, String error) {
+        this.login = login;
+        this.success = success;
+        this.errorCode = errorCode;
+        this.error = error;
+    }
+
+    public LoginRecord getLogin() {
+        return login;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
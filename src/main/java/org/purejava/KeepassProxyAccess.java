@@ -3,8 +3,13 @@ package org.purejava;
 import org.apache.commons.lang3.SystemUtils;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.keepassxc.Capabilities;
 import org.keepassxc.Connection;
+import org.keepassxc.ConnectionEvent;
+import org.keepassxc.DatabaseState;
+import org.keepassxc.ExecutionStrategy;
 import org.keepassxc.LinuxMacConnection;
+import org.keepassxc.SelectorEventLoop;
 import org.keepassxc.WindowsConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,46 +21,86 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.module.ModuleDescriptor.Version;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 public class KeepassProxyAccess implements PropertyChangeListener {
     private static final Logger LOG = LoggerFactory.getLogger(KeepassProxyAccess.class);
 
-    private Connection connection;
-    private String fileLocation;
-    private final String FILE_NAME = "keepass-proxy-access.dat";
+    private final Connection connection;
+    private final String fileLocation;
+    private static final String FILE_NAME = "keepass-proxy-access.dat";
+    private final String SOCKET_FILE_SUFFIX = ".socket";
     private final long SAVE_DELAY_MS = 1000;
     private final AtomicReference<ScheduledFuture<?>> scheduledSaveCmd = new AtomicReference<>();
     private final ScheduledExecutorService scheduler;
+    private volatile LoginCache loginCache;
+    private final GroupIndexCache groupIndexCache = new GroupIndexCache();
+    private volatile TotpCache totpCache;
+    private volatile PasswordPool passwordPool;
 
-    private final String V2_7_0 = "2.7.0";
+    private static final Version V2_7_0 = Version.parse("2.7.0");
+    public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    // KeePassXC 2.7+ shows a dialog for every generate-password request and refuses concurrent ones
+    private static final int PASSWORD_POOL_MAX_IN_FLIGHT = 1;
 
     public KeepassProxyAccess() {
-        if (SystemUtils.IS_OS_LINUX || SystemUtils.IS_OS_MAC_OSX) {
-            connection = new LinuxMacConnection();
-            fileLocation = System.getProperty("user.home");
-            if (SystemUtils.IS_OS_LINUX) {
-                fileLocation += "/.config/keepass-proxy-access/" + FILE_NAME;
-            }
-            if (SystemUtils.IS_OS_MAC_OSX) {
-                fileLocation += "/Library/Application Support/keepass-proxy-access/" + FILE_NAME;
-            }
-        }
-        if (SystemUtils.IS_OS_WINDOWS) {
-            connection = new WindowsConnection();
-            fileLocation = System.getenv("AppData") + "/keepass-proxy-access/" + FILE_NAME;
-        }
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        connection.addPropertyChangeListener(this);
+        this(null, ExecutionStrategy.platformThreads());
+    }
+
+    /**
+     * Create an instance, that runs its tasks with the given strategy, e.g. on virtual threads.
+     *
+     * @param execution The threads to read from the proxy, wait for responses, reconnect and save credentials with,
+     *                  or null for {@link ExecutionStrategy#platformThreads()}.
+     * @see org.keepassxc.ExecutionStrategy
+     */
+    public KeepassProxyAccess(ExecutionStrategy execution) {
+        this(null, execution);
+    }
+
+    /**
+     * Create an instance, that shares the given event loop with other instances to talk to KeePassXC, instead of
+     * reading from the proxy with a thread of its own. The event loop is used on Linux and Mac only.
+     *
+     * @param eventLoop The event loop to use, or null to use a thread of its own.
+     * @return The instance.
+     * @see org.keepassxc.SelectorEventLoop
+     */
+    public static KeepassProxyAccess withEventLoop(SelectorEventLoop eventLoop) {
+        return new KeepassProxyAccess(eventLoop, ExecutionStrategy.platformThreads());
+    }
+
+    /**
+     * Create an instance, that uses the given event loop and runs its remaining tasks with the given strategy.
+     *
+     * @param eventLoop The event loop to use, or null to use a thread of its own.
+     * @param execution The threads to wait for responses, reconnect and save credentials with, or null for
+     *                  {@link ExecutionStrategy#platformThreads()}.
+     * @return The instance.
+     */
+    public static KeepassProxyAccess withEventLoop(SelectorEventLoop eventLoop, ExecutionStrategy execution) {
+        return new KeepassProxyAccess(eventLoop, execution);
+    }
+
+    private KeepassProxyAccess(SelectorEventLoop eventLoop, ExecutionStrategy execution) {
+        this(createConnection(eventLoop, null == execution ? ExecutionStrategy.platformThreads() : execution),
+                getDefaultFileLocation());
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             connection.removePropertyChangeListener(this);
             try {
@@ -65,7 +110,75 @@ public class KeepassProxyAccess implements PropertyChangeListener {
             }
         }
         ));
+    }
+
+    /**
+     * Create an instance, that talks to KeePassXC over the given connection and keeps the credentials in the given file.
+     *
+     * @param connection   The connection to KeePassXC, not connected yet.
+     * @param fileLocation The file the credentials are saved to.
+     */
+    KeepassProxyAccess(Connection connection, String fileLocation) {
+        this.connection = connection;
+        this.fileLocation = fileLocation;
+        scheduler = connection.getExecutionStrategy().getScheduler();
+        connection.addPropertyChangeListener(this);
+        connection.getEvents().subscribe(groupIndexCache);
         connection.setCredentials(loadCredentials());
+        if (connection instanceof LinuxMacConnection linuxMacConnection) {
+            loadSocket().ifPresent(linuxMacConnection::setPreferredSocket);
+            linuxMacConnection.setSocketFoundListener(socket -> scheduler.execute(() -> saveSocket(socket)));
+        }
+    }
+
+    private static Connection createConnection(SelectorEventLoop eventLoop, ExecutionStrategy execution) {
+        if (SystemUtils.IS_OS_WINDOWS) {
+            return new WindowsConnection(execution);
+        }
+        return new LinuxMacConnection(eventLoop, execution);
+    }
+
+    private static String getDefaultFileLocation() {
+        if (SystemUtils.IS_OS_WINDOWS) {
+            return System.getenv("AppData") + "/keepass-proxy-access/" + FILE_NAME;
+        }
+        var fileLocation = System.getProperty("user.home");
+        if (SystemUtils.IS_OS_MAC_OSX) {
+            return fileLocation + "/Library/Application Support/keepass-proxy-access/" + FILE_NAME;
+        }
+        return fileLocation + "/.config/keepass-proxy-access/" + FILE_NAME;
+    }
+
+    /**
+     * Loads the socket, that accepted the connection on the last start, so it is tried first, when probing.
+     *
+     * @return An Optional of the socket in case it was saved before, an empty Optional otherwise.
+     */
+    private Optional<Path> loadSocket() {
+        try {
+            var socket = Files.readString(Path.of(fileLocation + SOCKET_FILE_SUFFIX), StandardCharsets.UTF_8).strip();
+            return socket.isEmpty() ? Optional.empty() : Optional.of(Path.of(socket));
+        } catch (IOException | InvalidPathException e) {
+            LOG.debug("Socket could not be read from disc");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the socket, that accepted the connection, to disc.
+     *
+     * @param socket The socket.
+     */
+    private void saveSocket(Path socket) {
+        try {
+            var path = Path.of(fileLocation + SOCKET_FILE_SUFFIX);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, socket.toString(), StandardCharsets.UTF_8);
+            LOG.debug("Socket saved");
+        } catch (IOException e) {
+            LOG.error("Socket could not be saved to disc");
+            LOG.error(e.toString(), e.getCause());
+        }
     }
 
     /**
@@ -160,6 +273,20 @@ public class KeepassProxyAccess implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Enable or disable socket probing on Linux and Mac. With probing enabled, connecting tries all places the kinds of
+     * KeePassXC installations open their socket at instead of the place of the installation found. The socket, that
+     * accepted the connection, is saved and tried first on the next start.
+     *
+     * @param socketProbing True to probe the sockets on connecting.
+     * @see org.keepassxc.LinuxMacConnection#setSocketProbing(boolean)
+     */
+    public void setSocketProbing(boolean socketProbing) {
+        if (connection instanceof LinuxMacConnection linuxMacConnection) {
+            linuxMacConnection.setSocketProbing(socketProbing);
+        }
+    }
+
     /**
      * Connects KeePassXC with a new client. This is required once, on connecting a new client to KeePassXC and
      * creates the public idKey and the public associateId.
@@ -205,13 +332,20 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return True, if the id and the key are valid, false otherwise.
      */
     public boolean testAssociate(String id, String key) {
-        try {
-            connection.testAssociate(id, key);
-            return true;
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException e) {
-            LOG.info(e.toString(), e.getCause());
-            return false;
-        }
+        return testAssociateAsync(id, key).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#testAssociate(String, String) testAssociate}.
+     *
+     * @param id  The identifier of the KeePassXC database connection to be tested.
+     * @param key The public key of the idKeyPair to be tested.
+     * @return A future that completes with true, if the id and the key are valid, false otherwise.
+     */
+    public CompletableFuture<Boolean> testAssociateAsync(String id, String key) {
+        return connection.testAssociateAsync(id, key)
+                .thenApply(v -> true)
+                .exceptionally(t -> logFailure(t, false));
     }
 
     /**
@@ -223,29 +357,99 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * an empty Optional otherwise.
      */
     public Optional<String> getDatabasehash(boolean... unlock) {
-        try {
-            if (unlock.length > 1) {
-                throw new IllegalStateException("Invalid number of parameters for getDatabasehash(boolean... unlock)");
-            }
-            return switch (unlock.length) {
-                case 0 -> Optional.of(connection.getDatabasehash());
-                case 1 -> Optional.of(connection.getDatabasehash(unlock[0]));
-                default -> Optional.empty();
-            };
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException e) {
-            LOG.info(e.toString(), e.getCause());
-            return Optional.empty();
-        }
+        return getDatabasehashAsync(unlock).join();
     }
 
     /**
-     * Check, whether the connected KeePassXC database is unlocked.
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getDatabasehash(boolean...) getDatabasehash}.
      *
-     * @return {@code true} if the connected KeePassXC database is unlocked (i.e. logins can be fetched), {@code false}
-     *         otherwise.
+     * @param unlock When true, the KeePassXC application is brought to the front and unlock is requested from the user.
+     * @return A future that completes with an Optional containing the database hash of the current active KeePassXC
+     * database in case the hash could be retrieved, an empty Optional otherwise.
+     */
+    public CompletableFuture<Optional<String>> getDatabasehashAsync(boolean... unlock) {
+        var request = switch (unlock.length) {
+            case 0 -> connection.getDatabasehashAsync();
+            case 1 -> connection.getDatabasehashAsync(unlock[0]);
+            default -> CompletableFuture.<String>failedFuture(
+                    new IllegalStateException("Invalid number of parameters for getDatabasehash(boolean... unlock)"));
+        };
+        return request
+                .thenApply(Optional::of)
+                .exceptionally(t -> logFailure(t, Optional.empty()));
+    }
+
+    /**
+     * Check, whether the connected KeePassXC database is locked. The state kept up to date by the signals of
+     * KeePassXC is used, KeePassXC is only asked, in case the state is not known yet.
+     *
+     * @return {@code true} if the connected KeePassXC database is locked, {@code false} if it is unlocked (i.e.
+     *         logins can be fetched).
      */
     public boolean isDatabaseLocked() {
-        return getDatabasehash().isEmpty();
+        return switch (connection.getDatabaseState()) {
+            case LOCKED -> true;
+            case UNLOCKED -> false;
+            case UNKNOWN -> getDatabasehash().isEmpty();
+        };
+    }
+
+    /**
+     * Subscribe to connection and database events, e.g. to invalidate cached logins, when the database gets locked.
+     *
+     * @return The publisher of the events.
+     * @see org.keepassxc.Connection#getEvents()
+     */
+    public Flow.Publisher<ConnectionEvent> getEvents() {
+        return connection.getEvents();
+    }
+
+    /**
+     * Get what the connected KeePassXC supports without asking it. Requests KeePassXC does not support fail right
+     * away, without being sent.
+     *
+     * @return The version of KeePassXC and the requests it supports, as learned when the public keys were exchanged.
+     * @see org.keepassxc.Capabilities
+     */
+    public Capabilities getCapabilities() {
+        return connection.getCapabilities();
+    }
+
+    /**
+     * Get the lock state of the connected KeePassXC database without asking KeePassXC.
+     *
+     * @return The last known state of the database.
+     */
+    public DatabaseState getDatabaseState() {
+        return connection.getDatabaseState();
+    }
+
+    /**
+     * Keep the results of {@link org.purejava.KeepassProxyAccess#getLogins(String, String, boolean, List) getLogins}
+     * in memory, so that repeated requests for the same URL don't require a round trip to KeePassXC.
+     * The cached results are dropped, when the database gets locked or the connection is lost and when
+     * {@link org.purejava.KeepassProxyAccess#setLogin(String, String, String, String, String, String, String, String) setLogin}
+     * or {@link org.purejava.KeepassProxyAccess#deleteEntry(String) deleteEntry} change entries of a cached result.
+     * Cached credentials are held in memory only. Calling this again replaces the cache.
+     *
+     * @param maxEntries The maximum number of results kept, the least recently used result is dropped first.
+     * @param ttl        The time a result is used for.
+     */
+    public void enableLoginCache(int maxEntries, Duration ttl) {
+        var cache = new LoginCache(maxEntries, ttl);
+        connection.getEvents().subscribe(cache);
+        var previous = loginCache;
+        loginCache = cache;
+        if (null != previous) previous.close();
+    }
+
+    /**
+     * Stop caching the results of getLogins and drop all cached results.
+     */
+    public void disableLoginCache() {
+        var previous = loginCache;
+        loginCache = null;
+        if (null != previous) previous.close();
     }
 
     /**
@@ -259,12 +463,112 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * were found, an empty Map otherwise.
      */
     public Map<String, Object> getLogins(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
-        try {
-            return connection.getLogins(url, submitUrl, httpAuth, list).toMap();
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException e) {
-            LOG.info(e.toString(), e.getCause());
-            return Map.of();
+        return getLoginsAsync(url, submitUrl, httpAuth, list).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getLogins(String, String, boolean, List) getLogins}.
+     *
+     * @param url       The URL credentials are looked up for.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param httpAuth  Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list      Id / key combinations identifying and granting access to KeePassXC databases.
+     * @return A future that completes with a Map that contains all found credentials together with additional
+     * information, in case credentials were found, an empty Map otherwise.
+     */
+    public CompletableFuture<Map<String, Object>> getLoginsAsync(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
+        return loginsResponse(url, submitUrl, httpAuth, list).thenApply(JSONObject::toMap);
+    }
+
+    /**
+     * Request credentials from KeePassXC databases for a given URL. Unlike
+     * {@link org.purejava.KeepassProxyAccess#getLogins(String, String, boolean, List) getLogins}, the entries are
+     * returned typed and wrap the parsed response, instead of being copied into nested Maps.
+     *
+     * @param url       The URL credentials are looked up for.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param httpAuth  Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list      Id / key combinations identifying and granting access to KeePassXC databases.
+     * @return The found entries, an empty List, in case no credentials were found.
+     */
+    public List<LoginEntry> getLoginEntries(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
+        return getLoginEntriesAsync(url, submitUrl, httpAuth, list).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getLoginEntries(String, String, boolean, List) getLoginEntries}.
+     *
+     * @param url       The URL credentials are looked up for.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param httpAuth  Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list      Id / key combinations identifying and granting access to KeePassXC databases.
+     * @return A future that completes with the found entries, an empty List, in case no credentials were found.
+     */
+    public CompletableFuture<List<LoginEntry>> getLoginEntriesAsync(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
+        return loginsResponse(url, submitUrl, httpAuth, list).thenApply(LoginEntry::listOf);
+    }
+
+    private CompletableFuture<JSONObject> loginsResponse(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
+        var cache = loginCache;
+        if (null == cache) {
+            return requestLogins(url, submitUrl, httpAuth, list);
         }
+        return cache.get(url, submitUrl, httpAuth, list, () -> requestLogins(url, submitUrl, httpAuth, list));
+    }
+
+    private CompletableFuture<JSONObject> requestLogins(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list) {
+        return connection.getLoginsAsync(url, submitUrl, httpAuth, list)
+                .exceptionally(t -> logFailure(t, new JSONObject()));
+    }
+
+    /**
+     * Request credentials from KeePassXC databases for many URLs at once. The requests are pipelined: they are sent
+     * without waiting for the responses in between, up to the given number of requests waiting at the same time.
+     *
+     * @param urls        The URLs credentials are looked up for.
+     * @param httpAuth    Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list        Id / key combinations identifying and granting access to KeePassXC databases.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time,
+     *                    e.g. {@link #DEFAULT_MAX_IN_FLIGHT}.
+     * @return A Map with the URLs as keys and the Maps, that contain the found credentials as
+     * {@link org.purejava.KeepassProxyAccess#getLogins(String, String, boolean, List) getLogins} returns them,
+     * as values. URLs no credentials were found for are mapped to an empty Map.
+     */
+    public Map<String, Map<String, Object>> getLogins(Collection<String> urls, boolean httpAuth, List<Map<String, String>> list, int maxInFlight) {
+        return getLoginsAsync(urls, httpAuth, list, maxInFlight).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getLogins(Collection, boolean, List, int) getLogins}.
+     *
+     * @param urls        The URLs credentials are looked up for.
+     * @param httpAuth    Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list        Id / key combinations identifying and granting access to KeePassXC databases.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time.
+     * @return A future that completes with a Map with the URLs as keys and the found credentials as values,
+     * once the responses for all URLs arrived.
+     */
+    public CompletableFuture<Map<String, Map<String, Object>>> getLoginsAsync(Collection<String> urls, boolean httpAuth, List<Map<String, String>> list, int maxInFlight) {
+        return getLoginsAsync(urls, httpAuth, list, maxInFlight, null);
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getLogins(Collection, boolean, List, int) getLogins},
+     * that hands every result over as soon as it arrived.
+     *
+     * @param urls        The URLs credentials are looked up for.
+     * @param httpAuth    Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list        Id / key combinations identifying and granting access to KeePassXC databases.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time.
+     * @param onResult    Receives every URL together with the found credentials as soon as they arrived, may be null.
+     *                    It is called by the thread reading from the proxy, so it should not block.
+     * @return A future that completes with a Map with the URLs as keys and the found credentials as values,
+     * once the responses for all URLs arrived.
+     */
+    public CompletableFuture<Map<String, Map<String, Object>>> getLoginsAsync(Collection<String> urls, boolean httpAuth, List<Map<String, String>> list,
+                                                                              int maxInFlight, BiConsumer<String, Map<String, Object>> onResult) {
+        return PipelinedDispatch.run(new LinkedHashSet<>(urls), maxInFlight,
+                url -> getLoginsAsync(url, "", httpAuth, list), onResult);
     }
 
     /**
@@ -281,16 +585,30 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @see org.purejava.KeepassProxyAccess#getLogins(String, String, boolean, List)
      */
     public ValidLogin loginExists(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list, String password) {
-        var response = getLogins(url, submitUrl, httpAuth, list);
-        if (response.isEmpty()) {
-            return new ValidLogin(false, null);
-        }
-        var array = (ArrayList<Object>) response.get("entries");
-        for (Object o : array) {
-            var credentials = (HashMap<String, Object>) o;
-            if (credentials.get("password").equals(password)) return new ValidLogin(true, credentials.get("uuid").toString());
-        }
-        return new ValidLogin(true, null);
+        return loginExistsAsync(url, submitUrl, httpAuth, list, password).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#loginExists(String, String, boolean, List, String) loginExists}.
+     *
+     * @param url       The URL credentials are looked up for.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param httpAuth  Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list      Id / key combinations identifying and granting access to KeePassXC databases.
+     * @param password  Password to check.
+     * @return A future that completes with the ValidLogin describing whether a valid login exists for the given URL
+     * and whether the given password matches too.
+     */
+    public CompletableFuture<ValidLogin> loginExistsAsync(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list, String password) {
+        return loginsResponse(url, submitUrl, httpAuth, list).thenApply(response -> {
+            if (response.isEmpty()) {
+                return new ValidLogin(false, null);
+            }
+            for (var entry : LoginEntry.listOf(response)) {
+                if (entry.getPassword().equals(password)) return new ValidLogin(true, entry.getUuid());
+            }
+            return new ValidLogin(true, null);
+        });
     }
 
     /**
@@ -311,13 +629,88 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return True, if the entry could be stored/updated, false otherwise.
      */
     public boolean setLogin(String url, String submitUrl, String id, String login, String password, String group, String groupUuid, String uuid) {
-        try {
-            var response = connection.setLogin(url, submitUrl, id, login, password, group, groupUuid, uuid);
-            return response.has("success") && response.getString("success").equals("true");
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return false;
-        }
+        return setLoginAsync(url, submitUrl, id, login, password, group, groupUuid, uuid).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#setLogin(String, String, String, String, String, String, String, String) setLogin}.
+     *
+     * @param url       The URL to be saved. The title of the new entry is the hostname of the URL.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param id        An identifier for the KeePassXC database connection - ignored at the moment.
+     * @param login     The username to be saved.
+     * @param password  The password to be saved.
+     * @param group     The group name to be used for new entries.
+     * @param groupUuid Identifier to decide, where to store the entry.
+     * @param uuid      Identifier whether an existing entry is updated or a new one is created.
+     * @return A future that completes with true, if the entry could be stored/updated, false otherwise.
+     */
+    public CompletableFuture<Boolean> setLoginAsync(String url, String submitUrl, String id, String login, String password, String group, String groupUuid, String uuid) {
+        return connection.setLoginAsync(url, submitUrl, id, login, password, group, groupUuid, uuid)
+                .whenComplete((response, t) -> invalidateLogins(url, uuid))
+                .thenApply(this::isSuccess)
+                .exceptionally(t -> logFailure(t, false));
+    }
+
+    /**
+     * Store many logins at once, e.g. to migrate them into KeePassXC. The set-login requests are pipelined: they are
+     * sent without waiting for the responses in between, up to the given number of requests waiting at the same time.
+     *
+     * @param logins      The logins to be stored. They are taken from the stream one by one, when there is a free slot
+     *                    for the next request, so the stream is not loaded into memory at once.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time,
+     *                    e.g. {@link #DEFAULT_MAX_IN_FLIGHT}.
+     * @param progress    Receives the outcome for every login as soon as it is known, may be null.
+     * @return The outcome for every login, in the order the outcomes arrived. As KeePassXC answers in order, this is
+     * the order of the given logins.
+     */
+    public List<ImportResult> importLogins(Stream<LoginRecord> logins, int maxInFlight, ImportProgress progress) {
+        return importLoginsAsync(logins, maxInFlight, progress).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#importLogins(Stream, int, ImportProgress) importLogins}.
+     *
+     * @param logins      The logins to be stored. They are taken from the stream one by one, when there is a free slot
+     *                    for the next request.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time.
+     * @param progress    Receives the outcome for every login as soon as it is known, may be null. It is called by the
+     *                    thread reading from the proxy, so it should not block.
+     * @return A future that completes with the outcome for every login, in the order the outcomes arrived, once all
+     * logins were processed.
+     */
+    public CompletableFuture<List<ImportResult>> importLoginsAsync(Stream<LoginRecord> logins, int maxInFlight, ImportProgress progress) {
+        var records = logins.spliterator();
+        var total = (int) records.getExactSizeIfKnown();
+        var results = new ArrayList<ImportResult>();
+        return PipelinedDispatch.<LoginRecord, ImportResult>run(Spliterators.iterator(records), maxInFlight, this::storeLogin, (r, result) -> {
+                    int count;
+                    synchronized (results) {
+                        results.add(result);
+                        count = results.size();
+                    }
+                    if (null != progress) progress.update(result, count, total);
+                })
+                .thenApply(done -> {
+                    synchronized (results) {
+                        return List.copyOf(results);
+                    }
+                });
+    }
+
+    private CompletableFuture<ImportResult> storeLogin(LoginRecord r) {
+        return connection.setLoginAsync(r.getUrl(), r.getSubmitUrl(), getAssociateId(), r.getLogin(), r.getPassword(), r.getGroup(), r.getGroupUuid(), r.getUuid())
+                .whenComplete((response, t) -> invalidateLogins(r.getUrl(), r.getUuid()))
+                .handle((response, t) -> {
+                    if (null == t) {
+                        return isSuccess(response)
+                                ? new ImportResult(r, true, null, null)
+                                : new ImportResult(r, false, response.optString("errorCode", null), "Not stored");
+                    }
+                    var cause = t instanceof CompletionException && null != t.getCause() ? t.getCause() : t;
+                    var errorCode = cause instanceof KeepassProxyAccessException kpae ? kpae.getErrorCode() : null;
+                    return new ImportResult(r, false, errorCode, cause.getMessage());
+                });
     }
 
     /**
@@ -326,12 +719,40 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return An object that contains the database groups and groupUuids in case the request was successful, an empty object otherwise.
      */
     public JSONObject getDatabaseGroups() {
-        try {
-            return connection.getDatabaseGroups();
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException e) {
-            LOG.info(e.toString(), e.getCause());
-            return new JSONObject();
-        }
+        return getDatabaseGroupsAsync().join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getDatabaseGroups() getDatabaseGroups}.
+     *
+     * @return A future that completes with an object that contains the database groups and groupUuids in case the
+     * request was successful, an empty object otherwise.
+     */
+    public CompletableFuture<JSONObject> getDatabaseGroupsAsync() {
+        return connection.getDatabaseGroupsAsync()
+                .exceptionally(t -> logFailure(t, new JSONObject()));
+    }
+
+    /**
+     * Get an index of all database groups, that allows to look up groups by their path or groupUuid. The index is
+     * built from {@link org.purejava.KeepassProxyAccess#getDatabaseGroups() getDatabaseGroups} on first access and
+     * kept, until a group is created with {@link org.purejava.KeepassProxyAccess#createNewGroup(String) createNewGroup}
+     * or the database is unlocked. Groups created or changed otherwise, e.g. in KeePassXC itself, show up after that.
+     *
+     * @return The index of the database groups, an empty index in case the groups could not be retrieved.
+     */
+    public GroupIndex getGroupIndex() {
+        return getGroupIndexAsync().join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getGroupIndex() getGroupIndex}.
+     *
+     * @return A future that completes with the index of the database groups, an empty index in case the groups
+     * could not be retrieved.
+     */
+    public CompletableFuture<GroupIndex> getGroupIndexAsync() {
+        return groupIndexCache.get(this::getDatabaseGroupsAsync);
     }
 
     /**
@@ -340,17 +761,89 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return The newly generated password in case the generation was successful, an empty String otherwise.
      */
     public String generatePassword() {
-        try {
-            var response = connection.generatePassword();
-            if (isMinimiumVersion(response.getString("version"), V2_7_0)) {
-                return response.getString("password");
-            } else {
-                return response.getJSONArray("entries").getJSONObject(0).getString("password");
-            }
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return "";
+        return generatePasswordAsync().join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#generatePassword() generatePassword}.
+     * With the password pool enabled, the password is taken from the pool, if it is not empty.
+     *
+     * @return A future that completes with the newly generated password in case the generation was successful,
+     * an empty String otherwise.
+     */
+    public CompletableFuture<String> generatePasswordAsync() {
+        var pool = passwordPool;
+        if (null != pool) {
+            var password = pool.poll();
+            if (null != password) return CompletableFuture.completedFuture(password);
+            // Fill the empty pool after the password asked for, as KeePassXC refuses overlapping requests
+            return requestPassword()
+                    .whenComplete((generated, t) -> {
+                        if (null == t) pool.refill();
+                    })
+                    .exceptionally(t -> logFailure(t, ""));
         }
+        return requestPassword().exceptionally(t -> logFailure(t, ""));
+    }
+
+    private CompletableFuture<String> requestPassword() {
+        return connection.generatePasswordAsync()
+                .thenApply(response -> {
+                    if (isPasswordAtTopLevel(response)) {
+                        return response.getString("password");
+                    } else {
+                        return response.getJSONArray("entries").getJSONObject(0).getString("password");
+                    }
+                });
+    }
+
+    /**
+     * KeePassXC 2.7.0 moved the generated password out of the entries. The version learned during the key exchange
+     * is used, the version of the response is parsed only, if KeePassXC did not report it back then.
+     */
+    private boolean isPasswordAtTopLevel(JSONObject response) {
+        return connection.getCapabilities().getVersion()
+                .map(version -> version.compareTo(V2_7_0) >= 0)
+                .orElseGet(() -> isMinimiumVersion(response.getString("version"), V2_7_0));
+    }
+
+    /**
+     * Generate passwords in advance, so that {@link org.purejava.KeepassProxyAccess#generatePassword() generatePassword}
+     * usually returns a password without a round trip to KeePassXC. The pool starts empty and is filled only after a
+     * caller asked for a password: the first password is requested as usual and the pool is filled up to the high
+     * watermark after it. Once the number of passwords drops to the low watermark, the pool is refilled in the
+     * background. A password is removed from the pool, when it is handed out. The pool is emptied, when the database
+     * gets locked or the connection is lost, and filled again on the next call to generatePassword.
+     * Passwords are held in memory only. Calling this again replaces the pool.
+     * <p>
+     * Filling the pool sends generate-password requests without the user having asked for them. The passwords are
+     * requested one at a time, as KeePassXC 2.7 and newer opens its password generator for every request and refuses
+     * further requests, while it is open. With those versions, every password put into the pool opens the password
+     * generator in KeePassXC and needs the user to confirm it, so the pool is meant for KeePassXC versions, that
+     * generate passwords without showing the password generator.
+     *
+     * @param lowWatermark  The number of passwords, at which the pool gets refilled.
+     * @param highWatermark The number of passwords the pool gets refilled to.
+     * @throws IllegalArgumentException If the low watermark is negative or not lower than the high watermark.
+     */
+    public void enablePasswordPool(int lowWatermark, int highWatermark) {
+        if (lowWatermark < 0 || lowWatermark >= highWatermark) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high");
+        }
+        var pool = new PasswordPool(lowWatermark, highWatermark, PASSWORD_POOL_MAX_IN_FLIGHT, this::requestPassword);
+        connection.getEvents().subscribe(pool);
+        var previous = passwordPool;
+        passwordPool = pool;
+        if (null != previous) previous.close();
+    }
+
+    /**
+     * Stop generating passwords in advance and drop all passwords in the pool.
+     */
+    public void disablePasswordPool() {
+        var previous = passwordPool;
+        passwordPool = null;
+        if (null != previous) previous.close();
     }
 
     /**
@@ -359,13 +852,18 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return True, if the database could be locked, false if something went wrong.
      */
     public boolean lockDatabase() {
-        try {
-            connection.lockDatabase();
-            return true;
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return false;
-        }
+        return lockDatabaseAsync().join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#lockDatabase() lockDatabase}.
+     *
+     * @return A future that completes with true, if the database could be locked, false if something went wrong.
+     */
+    public CompletableFuture<Boolean> lockDatabaseAsync() {
+        return connection.lockDatabaseAsync()
+                .thenApply(response -> true)
+                .exceptionally(t -> logFailure(t, false));
     }
 
     /**
@@ -378,12 +876,87 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * in case the group could be created, an empty Map otherwise.
      */
     public Map<String, String> createNewGroup(String path) {
-        try {
-            return getNewGroupId(connection.createNewGroup(path));
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return Map.of();
+        return createNewGroupAsync(path).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#createNewGroup(String) createNewGroup}.
+     *
+     * @param path Name or path. A path of the format level1/level2 creates a group level1 on the root level and a
+     *             group level2 as a child of level1.
+     * @return A future that completes with a Map containing the last part of the path name of the group (key: "name")
+     * that was created with its according groupUuid (key: "uuid") in case the group could be created, an empty Map otherwise.
+     */
+    public CompletableFuture<Map<String, String>> createNewGroupAsync(String path) {
+        return connection.createNewGroupAsync(path)
+                .whenComplete((response, t) -> groupIndexCache.invalidate())
+                .thenApply(this::getNewGroupId)
+                .exceptionally(t -> logFailure(t, Map.of()));
+    }
+
+    /**
+     * Create many groups at once, e.g. to set up a folder structure. Groups that already exist are not created
+     * again and a group, that is the parent of another group to be created, is created along with its child instead
+     * of by a request of its own. The remaining create-new-group requests are pipelined: they are sent without
+     * waiting for the responses in between, up to the given number of requests waiting at the same time.
+     *
+     * @param paths       Names or paths of the format level1/level2.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time,
+     *                    e.g. {@link #DEFAULT_MAX_IN_FLIGHT}.
+     * @return A Map with the paths, without leading and trailing slashes, as keys and the groupUuids as values.
+     * Paths the group could not be created for are missing.
+     */
+    public Map<String, String> createNewGroups(Collection<String> paths, int maxInFlight) {
+        return createNewGroupsAsync(paths, maxInFlight).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#createNewGroups(Collection, int) createNewGroups}.
+     *
+     * @param paths       Names or paths of the format level1/level2.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time.
+     * @return A future that completes with a Map with the paths as keys and the groupUuids as values, once all
+     * groups were created.
+     */
+    public CompletableFuture<Map<String, String>> createNewGroupsAsync(Collection<String> paths, int maxInFlight) {
+        var requested = new LinkedHashSet<String>();
+        for (var path : paths) {
+            var normalized = GroupIndex.normalize(path);
+            if (!normalized.isEmpty()) requested.add(normalized);
         }
+        return getDatabaseGroupsAsync().thenApply(GroupIndex::of).thenCompose(before -> {
+            var result = new LinkedHashMap<String, String>();
+            var missing = new TreeSet<String>();
+            for (var path : requested) {
+                before.findByPath(path).ifPresentOrElse(group -> result.put(path, group.getUuid()), () -> missing.add(path));
+            }
+            if (missing.isEmpty()) {
+                return CompletableFuture.completedFuture(result);
+            }
+            return PipelinedDispatch.run(GroupIndex.withoutParents(missing), maxInFlight,
+                            path -> connection.createNewGroupAsync(path).thenApply(response -> response.getString("uuid")), null)
+                    .whenComplete((created, t) -> groupIndexCache.invalidate())
+                    .thenCompose(created -> {
+                        result.putAll(created);
+                        if (created.isEmpty() || result.size() == requested.size()) {
+                            return CompletableFuture.completedFuture(result);
+                        }
+                        // The responses carry the uuids of the leaves only, the parents are looked up afterwards
+                        return getDatabaseGroupsAsync().thenApply(GroupIndex::of).thenApply(after -> {
+                            for (var path : missing) {
+                                if (!result.containsKey(path)) after.findByPath(path).ifPresent(group -> result.put(path, group.getUuid()));
+                            }
+                            return result;
+                        });
+                    });
+        }).thenApply(result -> {
+            var ordered = new LinkedHashMap<String, String>();
+            for (var path : requested) {
+                var uuid = result.get(path);
+                if (null != uuid) ordered.put(path, uuid);
+            }
+            return ordered;
+        });
     }
 
     /**
@@ -394,28 +967,85 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return The TOTP for the entry or an empty String in case TOTP is not configured for that entry or an error occurred.
      */
     public String getTotp(String uuid) {
-        try {
-            return connection.getTotp(uuid).getString("totp");
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return "";
+        return getTotpAsync(uuid).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#getTotp(String) getTotp}.
+     *
+     * @param uuid The uuid of the entry.
+     * @return A future that completes with the TOTP for the entry or an empty String in case TOTP is not configured
+     * for that entry or an error occurred.
+     */
+    public CompletableFuture<String> getTotpAsync(String uuid) {
+        var cache = totpCache;
+        if (null == cache) {
+            return requestTotp(uuid);
+        }
+        return cache.get(uuid, () -> requestTotp(uuid));
+    }
+
+    private CompletableFuture<String> requestTotp(String uuid) {
+        return connection.getTotpAsync(uuid)
+                .thenApply(response -> response.getString("totp"))
+                .exceptionally(t -> logFailure(t, ""));
+    }
+
+    /**
+     * Keep the TOTPs returned by {@link org.purejava.KeepassProxyAccess#getTotp(String) getTotp} for the rest of the
+     * time step they are valid in, so repeated requests within a time step don't require a round trip to KeePassXC.
+     * KeePassXC does not report the period of an entry, so this should only be used, if all entries share the given
+     * period. The cached TOTPs are dropped, when the database gets locked or the connection is lost and when an entry
+     * is deleted. Calling this again replaces the cache.
+     *
+     * @param period The period of the TOTPs, usually 30 seconds.
+     * @throws IllegalArgumentException If the period is shorter than a millisecond.
+     */
+    public void enableTotpCache(Duration period) {
+        if (period.toMillis() < 1) {
+            throw new IllegalArgumentException("Period must be at least a millisecond");
         }
+        var cache = new TotpCache(period);
+        connection.getEvents().subscribe(cache);
+        var previous = totpCache;
+        totpCache = cache;
+        if (null != previous) previous.close();
+    }
+
+    /**
+     * Stop caching TOTPs and drop all cached TOTPs.
+     */
+    public void disableTotpCache() {
+        var previous = totpCache;
+        totpCache = null;
+        if (null != previous) previous.close();
     }
 
     /**
-     * Request to delete an entry, identified by its uuid.
+     * Request to delete an entry, identified by its uuid (KeePassXC 2.7.0 and newer).
      *
      * @param uuid The uuid of the entry.
      * @return True, in case the entry could be deleted, false otherwise.
      */
     public boolean deleteEntry(String uuid) {
-        try {
-            var response = connection.deleteEntry(uuid);
-            return response.has("success") && response.getString("success").equals("true");
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return false;
-        }
+        return deleteEntryAsync(uuid).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#deleteEntry(String) deleteEntry}.
+     *
+     * @param uuid The uuid of the entry.
+     * @return A future that completes with true, in case the entry could be deleted, false otherwise.
+     */
+    public CompletableFuture<Boolean> deleteEntryAsync(String uuid) {
+        return connection.deleteEntryAsync(uuid)
+                .whenComplete((response, t) -> {
+                    invalidateLogins(null, uuid);
+                    var cache = totpCache;
+                    if (null != cache) cache.invalidate(uuid);
+                })
+                .thenApply(this::isSuccess)
+                .exceptionally(t -> logFailure(t, false));
     }
 
     /**
@@ -425,17 +1055,23 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return True, in case the request was successful, false otherwise.
      */
     public boolean requestAutotype(String url) {
-        try {
-            var response = connection.requestAutotype(url);
-            return response.has("success") && response.getString("success").equals("true");
-        } catch (IOException | IllegalStateException | KeepassProxyAccessException | JSONException e) {
-            LOG.info(e.toString(), e.getCause());
-            return false;
-        }
+        return requestAutotypeAsync(url).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#requestAutotype(String) requestAutotype}.
+     *
+     * @param url The URL autotype is requested for.
+     * @return A future that completes with true, in case the request was successful, false otherwise.
+     */
+    public CompletableFuture<Boolean> requestAutotypeAsync(String url) {
+        return connection.requestAutotypeAsync(url)
+                .thenApply(this::isSuccess)
+                .exceptionally(t -> logFailure(t, false));
     }
 
     /**
-     * Request passkeys-register from the KeePassXC database (KeePassXC 2.8.0 and newer).
+     * Request passkeys-register from the KeePassXC database (KeePassXC 2.7.7 and newer).
      * @param publicKey An object containing public key-based credential.
      * @see <a href="https://www.w3.org/TR/webauthn-3/">Web Authentication: An API for accessing Public Key Credentials</a>.
      * @param origin    The origin the request originates from in the form {@code https://...}
@@ -455,17 +1091,32 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * }}</pre>
      */
     public JSONObject passkeysRegister(JSONObject publicKey, String origin, List<Map<String, String>> list) {
-        try {
-            var response = connection.passkeysRegister(publicKey, origin, list);
-            return parsePasskeysResponse(response);
-        } catch (IOException | KeepassProxyAccessException e) {
-            LOG.info(e.toString(), e.getCause());
-        }
-        return new JSONObject();
+        return passkeysRegisterAsync(publicKey, origin, list).join();
     }
 
     /**
-     * Request passkeys-get from the KeePassXC database (KeePassXC 2.8.0 and newer).
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#passkeysRegister(JSONObject, String, List) passkeysRegister}.
+     *
+     * @param publicKey An object containing public key-based credential.
+     * @param origin    The origin the request originates from in the form {@code https://...}
+     * @param list      A list of pairs of associateID and IDKeyPublicKey stored on association.
+     * @return A future that completes with an object that contains the result of the operation, or an empty object
+     * in case the request failed.
+     */
+    public CompletableFuture<JSONObject> passkeysRegisterAsync(JSONObject publicKey, String origin, List<Map<String, String>> list) {
+        return connection.passkeysRegisterAsync(publicKey, origin, list)
+                .thenApply(response -> {
+                    try {
+                        return parsePasskeysResponse(response);
+                    } catch (KeepassProxyAccessException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(t -> logFailure(t, new JSONObject()));
+    }
+
+    /**
+     * Request passkeys-get from the KeePassXC database (KeePassXC 2.7.7 and newer).
      * @param publicKey An object containing public key-based credential.
      * @see <a href="https://www.w3.org/TR/webauthn-3/">Web Authentication: An API for accessing Public Key Credentials</a>.
      * @param origin    The origin the request originates from in the form {@code https://...}
@@ -487,13 +1138,28 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * }}</pre>
      */
     public JSONObject passkeysGet(JSONObject publicKey, String origin, List<Map<String, String>> list) {
-        try {
-            var response = connection.passkeysGet(publicKey, origin, list);
-            return parsePasskeysResponse(response);
-        } catch (IOException | KeepassProxyAccessException e) {
-            LOG.info(e.toString(), e.getCause());
-        }
-        return new JSONObject();
+        return passkeysGetAsync(publicKey, origin, list).join();
+    }
+
+    /**
+     * Asynchronous variant of {@link org.purejava.KeepassProxyAccess#passkeysGet(JSONObject, String, List) passkeysGet}.
+     *
+     * @param publicKey An object containing public key-based credential.
+     * @param origin    The origin the request originates from in the form {@code https://...}
+     * @param list      A list of pairs of associateID and IDKeyPublicKey stored on association.
+     * @return A future that completes with an object that contains the result of the operation, or an empty object
+     * in case the request failed.
+     */
+    public CompletableFuture<JSONObject> passkeysGetAsync(JSONObject publicKey, String origin, List<Map<String, String>> list) {
+        return connection.passkeysGetAsync(publicKey, origin, list)
+                .thenApply(response -> {
+                    try {
+                        return parsePasskeysResponse(response);
+                    } catch (KeepassProxyAccessException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .exceptionally(t -> logFailure(t, new JSONObject()));
     }
 
     /**
@@ -531,8 +1197,9 @@ public class KeepassProxyAccess implements PropertyChangeListener {
     }
 
     /**
-     * This recursively flattens a JSONObject that contains all groups of the KeePassXC database to a map
-     * with key = group and value = groupUuid.
+     * This flattens a JSONObject that contains all groups of the KeePassXC database to a map
+     * with key = group and value = groupUuid. Groups with the same name overwrite each other, use
+     * {@link org.purejava.KeepassProxyAccess#getGroupIndex() getGroupIndex} to tell them apart.
      *
      * @param groups Input data to get processed.
      * @return Groups with their according groupUuids.
@@ -542,38 +1209,60 @@ public class KeepassProxyAccess implements PropertyChangeListener {
             return Map.of();
         }
         var groupTree = new HashMap<String, String>();
-        var m = groups.toMap();
-        var n = (HashMap<String, Object>) m.get("groups");
-        var rootGroups = (ArrayList<Object>) n.get("groups");
-        var rootGroup = (HashMap<String, Object>) rootGroups.get(0);
-        var children = (ArrayList<Object>) rootGroup.get("children");
-        traverse(children, groupTree);
+        traverse(GroupIndex.of(groups).getGroups(), groupTree);
         return groupTree;
     }
 
-    private void traverse(List<Object> children, Map<String, String> groups) {
-        children.stream()
-                .map(listItem -> (HashMap<String, Object>) listItem)
-                .forEach(li -> {
-                    var alc = (ArrayList<Object>) li.get("children");
-                    if (alc.size() == 0) {
-                        groups.put(li.get("name").toString(), li.get("uuid").toString());
-                    } else {
-                        groups.put(li.get("name").toString(), li.get("uuid").toString());
-                        traverse(alc, groups);
-                    }
-                });
+    private void traverse(List<DatabaseGroup> children, Map<String, String> groups) {
+        for (var group : children) {
+            groups.put(group.getName(), group.getUuid());
+            traverse(group.getChildren(), groups);
+        }
+    }
+
+    /**
+     * Drop the cached logins an entry that was stored or deleted might belong to.
+     *
+     * @param url  The URL of the entry or null, if it is not known.
+     * @param uuid The uuid of the entry or null, if it is not known.
+     */
+    private void invalidateLogins(String url, String uuid) {
+        var cache = loginCache;
+        if (null != cache) cache.invalidate(url, uuid);
+    }
+
+    /**
+     * Check whether a response reports success.
+     *
+     * @param response The response from the KeePassXC database.
+     * @return True, if the response contains the key "success" with the value "true", false otherwise.
+     */
+    private boolean isSuccess(JSONObject response) {
+        return response.has("success") && response.getString("success").equals("true");
+    }
+
+    /**
+     * Log why a request failed and provide the result to be used instead.
+     *
+     * @param t        The reason the request failed.
+     * @param fallback The result to be used instead.
+     * @return The fallback.
+     */
+    private <T> T logFailure(Throwable t, T fallback) {
+        var cause = t instanceof CompletionException && null != t.getCause() ? t.getCause() : t;
+        LOG.info(cause.toString(), cause.getCause());
+        return fallback;
     }
 
     /**
-     * Compare two software version strings to check for a minimum software version.
+     * Compare a software version string to a minimum software version.
      *
-     * @param v1 The first version string.
-     * @param v2 The second version string.
+     * @param v1 The version string.
+     * @param v2 The minimum version.
      * @return True in case v1 >= v2, false otherwise.
      */
-    private boolean isMinimiumVersion(String v1, String v2) {
-        return Version.parse(v1).compareTo(Version.parse(v2)) >= 0;
+    private boolean isMinimiumVersion(String v1, Version v2) {
+        return Version.parse(v1).compareTo(v2) >= 0;
     }
 
     @Override
@@ -596,6 +1285,9 @@ public class KeepassProxyAccess implements PropertyChangeListener {
      * @return True, in case the connection was shut down without an error, false otherwise.
      */
     public boolean shutdown() {
+        disableLoginCache();
+        disableTotpCache();
+        disablePasswordPool();
         try {
             connection.close();
             return true;
@@ -621,7 +1313,11 @@ public class KeepassProxyAccess implements PropertyChangeListener {
     }
 
     /**
-     * Getter for the ScheduledExecutorService in case the service needs to be shutdown from outside this library.
+     * Getter for the ScheduledExecutorService, that runs the reconnects, the sweeps of aged requests and saving the
+     * credentials. It is the scheduler of the {@link ExecutionStrategy} of the connection and shared with it, so it
+     * must not be shut down, while this instance is in use. {@link #shutdown()} closes the connection, which shuts down the
+     * scheduler, unless it was provided by the caller via {@link ExecutionStrategy#of}; in that case, the caller owns it
+     * and shuts it down.
      *
      * @return A reference to the ScheduledExecutorService.
      */
@@ -1,11 +1,38 @@
 package org.purejava;
 
 public class KeepassProxyAccessException extends Exception {
+    private final String errorCode;
+
     public KeepassProxyAccessException(String message) {
         super(message);
+        this.errorCode = null;
     }
 
     public KeepassProxyAccessException(String message, Throwable cause) {
         super(message, cause);
+        this.errorCode = null;
+    }
+
+    private KeepassProxyAccessException(String message, String errorCode, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Create an exception for an error KeePassXC reported.
+     *
+     * @param message   The message.
+     * @param errorCode The error code KeePassXC sent or null, if it sent none.
+     * @return The exception.
+     */
+    public static KeepassProxyAccessException ofErrorCode(String message, String errorCode) {
+        return new KeepassProxyAccessException(message, errorCode, null);
+    }
+
+    /**
+     * @return The error code KeePassXC sent or null, in case the error was not reported by KeePassXC.
+     */
+    public String getErrorCode() {
+        return errorCode;
     }
 }
@@ -0,0 +1,169 @@
+package org.purejava;
+
+import org.json.JSONObject;
+import org.keepassxc.ConnectionEvent;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the results of get-logins requests in memory for a limited time, so that asking for the same URL again does
+ * not require a round trip to KeePassXC. The cache is bounded, the least recently used result is evicted first.
+ * It is cleared, when the database gets locked or the connection is lost, and results are dropped, when entries for
+ * their URL are stored or deleted. Cached credentials are never written to disc.
+ */
+final class LoginCache implements Flow.Subscriber<ConnectionEvent> {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries;
+    private long generation = 0;
+    private Flow.Subscription subscription;
+
+    private record Key(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> keys) {
+    }
+
+    private record Entry(JSONObject logins, long expires) {
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maxEntries The maximum number of results kept.
+     * @param ttl        The time a result is used for.
+     */
+    LoginCache(int maxEntries, Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > LoginCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the logins for the given request from the cache or load and cache them. Empty results are not cached,
+     * as they are returned for failed requests as well. A result loaded while the cache was invalidated is not
+     * cached either, as it might be outdated already.
+     *
+     * @param url       The URL credentials are looked up for.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param httpAuth  Include database entries into search that are restricted to HTTP Basic Auth.
+     * @param list      Id / key combinations identifying and granting access to KeePassXC databases.
+     * @param loader    Requests the logins from KeePassXC.
+     * @return A future that completes with the response to get-logins. It is shared and must not be modified.
+     */
+    CompletableFuture<JSONObject> get(String url, String submitUrl, boolean httpAuth, List<Map<String, String>> list,
+                                      Supplier<CompletableFuture<JSONObject>> loader) {
+        var key = new Key(url, submitUrl, httpAuth, list.stream().map(Map::copyOf).toList());
+        long loadGeneration;
+        synchronized (this) {
+            var entry = entries.get(key);
+            if (null != entry && entry.expires() - System.nanoTime() > 0) {
+                return CompletableFuture.completedFuture(entry.logins());
+            }
+            if (null != entry) entries.remove(key);
+            loadGeneration = generation;
+        }
+        return loader.get().thenApply(logins -> {
+            if (!logins.isEmpty()) put(key, loadGeneration, logins);
+            return logins;
+        });
+    }
+
+    private synchronized void put(Key key, long loadGeneration, JSONObject logins) {
+        if (loadGeneration == generation) entries.put(key, new Entry(logins, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Drop all cached results.
+     */
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Drop the results, that might be changed by storing or deleting an entry.
+     *
+     * @param url  The URL of an entry stored or null, if it is not known.
+     * @param uuid The uuid of an entry stored or deleted or null, if it is not known.
+     */
+    synchronized void invalidate(String url, String uuid) {
+        generation++;
+        var host = host(url);
+        entries.entrySet().removeIf(e -> (null != host && host.equals(host(e.getKey().url())))
+                || (null != uuid && !uuid.isEmpty() && contains(e.getValue().logins(), uuid)));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static String host(String url) {
+        if (null == url) return null;
+        try {
+            var host = URI.create(url).getHost();
+            return null == host ? url : host;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private static boolean contains(JSONObject logins, String uuid) {
+        var entries = logins.optJSONArray("entries");
+        if (null == entries) return false;
+        for (var i = 0; i < entries.length(); i++) {
+            var entry = entries.optJSONObject(i);
+            if (null != entry && uuid.equals(entry.optString("uuid"))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stop listening to the events of the connection and drop all cached results.
+     */
+    void close() {
+        Flow.Subscription s;
+        synchronized (this) {
+            s = subscription;
+            subscription = null;
+        }
+        if (null != s) s.cancel();
+        clear();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+        }
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ConnectionEvent event) {
+        switch (event) {
+            case DATABASE_LOCKED, DISCONNECTED, RECONNECTING, KEY_EXCHANGE_DONE -> clear();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        clear();
+    }
+
+    @Override
+    public void onComplete() {
+        clear();
+    }
+}
@@ -0,0 +1,79 @@
+package org.purejava;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An entry found by {@link org.purejava.KeepassProxyAccess#getLoginEntries(String, String, boolean, List) getLoginEntries}.
+ * It wraps the entry of the response, that was parsed completely, when the response was decrypted. The fields are
+ * looked up in it on access, but unlike with getLogins, no nested Maps are copied from the response.
+ */
+public class LoginEntry {
+    private final JSONObject entry;
+
+    LoginEntry(JSONObject entry) {
+        this.entry = entry;
+    }
+
+    /**
+     * Get the entries of a response to get-logins.
+     *
+     * @param response The response to get-logins.
+     * @return The entries contained in the response, an empty List, if there are none.
+     */
+    static List<LoginEntry> listOf(JSONObject response) {
+        var entries = response.optJSONArray("entries");
+        if (null == entries) return List.of();
+        var list = new ArrayList<LoginEntry>(entries.length());
+        for (var i = 0; i < entries.length(); i++) {
+            var entry = entries.optJSONObject(i);
+            if (null != entry) list.add(new LoginEntry(entry));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    public String getUuid() {
+        return entry.optString("uuid");
+    }
+
+    public String getName() {
+        return entry.optString("name");
+    }
+
+    public String getLogin() {
+        return entry.optString("login");
+    }
+
+    public String getPassword() {
+        return entry.optString("password");
+    }
+
+    /**
+     * @return The current TOTP of the entry or an empty String, if it has none.
+     */
+    public String getTotp() {
+        return entry.optString("totp");
+    }
+
+    /**
+     * @return The additional string fields (KPH: ...) of the entry, an empty Map, if there are none.
+     */
+    public Map<String, String> getStringFields() {
+        var fields = entry.optJSONArray("stringFields");
+        if (null == fields) return Map.of();
+        var map = new LinkedHashMap<String, String>();
+        for (var i = 0; i < fields.length(); i++) {
+            var field = fields.optJSONObject(i);
+            if (null == field) continue;
+            for (var key : field.keySet()) {
+                map.put(key, field.optString(key));
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,66 @@
+package org.purejava;
+
+import java.util.stream.Stream;
+
+/**
+ * A login to be stored with {@link org.purejava.KeepassProxyAccess#importLogins(Stream, int, ImportProgress)}.
+ * The fields are the parameters of
+ * {@link org.purejava.KeepassProxyAccess#setLogin(String, String, String, String, String, String, String, String) setLogin}.
+ */
+public class LoginRecord {
+    private final String url;
+    private final String submitUrl;
+    private final String login;
+    private final String password;
+    private final String group;
+    private final String groupUuid;
+    private final String uuid;
+
+    /**
+     * A login to be stored.
+     * @param url       The URL to be saved. The title of the new entry is the hostname of the URL.
+     * @param submitUrl URL that can be passed along amd gets added to entry properties.
+     * @param login     The username to be saved.
+     * @param password  The password to be saved.
+     * @param group     The group name to be used for new entries.
+     * @param groupUuid Identifier to decide, where to store the entry. If empty, the standard group is used.
+     * @param uuid      The uuid of an existing entry to be updated. If empty, a new entry is created.
+     */
+    public LoginRecord(String url, String submitUrl, String login, String password, String group, String groupUuid, String uuid) {
+        this.url = url;
+        this.submitUrl = submitUrl;
+        this.login = login;
+        this.password = password;
+        this.group = group;
+        this.groupUuid = groupUuid;
+        this.uuid = uuid;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getSubmitUrl() {
+        return submitUrl;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public String getGroupUuid() {
+        return groupUuid;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+}
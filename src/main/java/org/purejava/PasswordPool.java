@@ -0,0 +1,143 @@
+package org.purejava;
+
+import org.keepassxc.ConnectionEvent;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps passwords generated by KeePassXC in advance, so that a password can be handed out without a round trip.
+ * The pool is filled only, when a caller asked for a password: once the number of passwords drops to the low
+ * watermark by handing one out, the pool is refilled up to the high watermark in the background. A password is removed
+ * from the pool, when it is handed out. The pool is emptied, when the database gets locked or the connection is lost.
+ */
+final class PasswordPool implements Flow.Subscriber<ConnectionEvent> {
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int maxInFlight;
+    private final Supplier<CompletableFuture<String>> generator;
+    private final ArrayDeque<String> passwords;
+    private long generation = 0;
+    private boolean refilling = false;
+    private boolean closed = false;
+    private Flow.Subscription subscription;
+
+    /**
+     * Create a pool. It is filled on the first call to {@link #refill()}.
+     *
+     * @param lowWatermark  The number of passwords, at which the pool gets refilled.
+     * @param highWatermark The number of passwords the pool gets refilled to.
+     * @param maxInFlight   The maximum number of requests waiting for their responses at the same time, while refilling.
+     * @param generator     Requests a password from KeePassXC.
+     */
+    PasswordPool(int lowWatermark, int highWatermark, int maxInFlight, Supplier<CompletableFuture<String>> generator) {
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.maxInFlight = maxInFlight;
+        this.generator = generator;
+        this.passwords = new ArrayDeque<>(highWatermark);
+    }
+
+    /**
+     * Take a password out of the pool and start refilling the pool, if it reached the low watermark.
+     *
+     * @return A password or null, if the pool is empty. The pool is not refilled then, the caller generates the
+     * password asked for and calls {@link #refill()} afterwards, so the requests don't overlap.
+     */
+    String poll() {
+        String password;
+        synchronized (this) {
+            password = passwords.poll();
+        }
+        if (null != password) refill();
+        return password;
+    }
+
+    /**
+     * Refill the pool up to the high watermark, if it reached the low watermark and is not being refilled already.
+     */
+    void refill() {
+        int missing;
+        long refillGeneration;
+        synchronized (this) {
+            if (closed || refilling || passwords.size() > lowWatermark) return;
+            missing = highWatermark - passwords.size();
+            refillGeneration = generation;
+            refilling = true;
+        }
+        var indices = IntStream.range(0, missing).boxed().toList();
+        PipelinedDispatch.<Integer, String>run(indices, maxInFlight, i -> generator.get(), (i, password) -> add(refillGeneration, password))
+                .whenComplete((generated, t) -> {
+                    boolean outdated;
+                    synchronized (this) {
+                        refilling = false;
+                        outdated = refillGeneration != generation;
+                    }
+                    // Stop, if the pool was emptied meanwhile or nothing could be generated, e.g. because the database is locked
+                    if (!outdated && null != generated && !generated.isEmpty()) refill();
+                });
+    }
+
+    private synchronized void add(long refillGeneration, String password) {
+        if (refillGeneration == generation && !closed && null != password && !password.isEmpty()
+                && passwords.size() < highWatermark) {
+            passwords.add(password);
+        }
+    }
+
+    /**
+     * Drop all passwords in the pool. Passwords being generated at the moment are dropped too.
+     */
+    synchronized void clear() {
+        generation++;
+        passwords.clear();
+    }
+
+    synchronized int size() {
+        return passwords.size();
+    }
+
+    /**
+     * Stop listening to the events of the connection and drop all passwords.
+     */
+    void close() {
+        Flow.Subscription s;
+        synchronized (this) {
+            closed = true;
+            s = subscription;
+            subscription = null;
+        }
+        if (null != s) s.cancel();
+        clear();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+        }
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ConnectionEvent event) {
+        switch (event) {
+            case DATABASE_LOCKED, DISCONNECTED, RECONNECTING, KEY_EXCHANGE_DONE -> clear();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        clear();
+    }
+
+    @Override
+    public void onComplete() {
+        clear();
+    }
+}
@@ -0,0 +1,132 @@
+package org.purejava;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Sends a request for every key of a collection without waiting for the responses in between, so the requests are
+ * pipelined over the connection. At most the given number of requests is in flight at any time, the next request is
+ * sent, as soon as a response arrived. No thread is blocked while waiting. The keys are taken from their iterator only,
+ * when a request is about to be sent for them, so they may be produced lazily.
+ *
+ * @param <K> The type of the keys, e.g. URLs.
+ * @param <V> The type of the results.
+ */
+final class PipelinedDispatch<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(PipelinedDispatch.class);
+
+    private final Iterator<K> keys;
+    private final Function<K, CompletableFuture<V>> request;
+    private final BiConsumer<K, V> onResult;
+    private final Map<K, V> results = new ConcurrentHashMap<>();
+    private final CompletableFuture<Map<K, V>> done = new CompletableFuture<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final int maxInFlight;
+    private int permits;
+
+    private PipelinedDispatch(Iterator<K> keys, int maxInFlight, Function<K, CompletableFuture<V>> request, BiConsumer<K, V> onResult) {
+        this.keys = keys;
+        this.maxInFlight = maxInFlight;
+        this.permits = maxInFlight;
+        this.request = request;
+        this.onResult = onResult;
+    }
+
+    /**
+     * Send a request for every key.
+     *
+     * @param keys        The keys, duplicates need to be removed already.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time.
+     * @param request     Sends the request for a key.
+     * @param onResult    Receives every result as soon as it arrived, may be null. Called by the thread
+     *                    completing the request.
+     * @return A future that completes with the results of all requests, that succeeded, once all requests completed.
+     */
+    static <K, V> CompletableFuture<Map<K, V>> run(Collection<K> keys, int maxInFlight,
+                                                  Function<K, CompletableFuture<V>> request, BiConsumer<K, V> onResult) {
+        return run(keys.iterator(), maxInFlight, request, onResult);
+    }
+
+    /**
+     * Send a request for every key the iterator returns. The next key is taken, when there is a free slot for it.
+     *
+     * @param keys        The keys, duplicates need to be removed already.
+     * @param maxInFlight The maximum number of requests waiting for their responses at the same time.
+     * @param request     Sends the request for a key.
+     * @param onResult    Receives every result as soon as it arrived, may be null. Called by the thread
+     *                    completing the request.
+     * @return A future that completes with the results of all requests, that succeeded, once the iterator is exhausted
+     * and all requests completed. It completes exceptionally, in case the iterator failed.
+     */
+    static <K, V> CompletableFuture<Map<K, V>> run(Iterator<K> keys, int maxInFlight,
+                                                  Function<K, CompletableFuture<V>> request, BiConsumer<K, V> onResult) {
+        if (maxInFlight < 1) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("maxInFlight must be at least 1"));
+        }
+        var dispatch = new PipelinedDispatch<>(keys, maxInFlight, request, onResult);
+        dispatch.drain();
+        return dispatch.done;
+    }
+
+    /**
+     * Send requests, as long as there are free slots. Responses that arrive immediately, e.g. from a cache, call
+     * this again from within the loop, so the call is only noted and handled by the loop instead of recursing.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        do {
+            try {
+                K key;
+                while (null != (key = nextKey())) {
+                    send(key);
+                }
+                if (isFinished()) done.complete(results);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private synchronized K nextKey() {
+        if (done.isDone() || permits == 0 || !keys.hasNext()) return null;
+        permits--;
+        return keys.next();
+    }
+
+    private synchronized boolean isFinished() {
+        return permits == maxInFlight && !keys.hasNext();
+    }
+
+    private void send(K key) {
+        CompletableFuture<V> response;
+        try {
+            response = request.apply(key);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, t) -> {
+            try {
+                if (null != t) {
+                    LOG.info("Request for {} failed: {}", key, t.toString());
+                } else {
+                    if (null != result) results.put(key, result);
+                    if (null != onResult) onResult.accept(key, result);
+                }
+            } finally {
+                synchronized (this) {
+                    permits++;
+                }
+                drain();
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package org.purejava;
+
+import org.keepassxc.ConnectionEvent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the TOTPs of entries for the time step they are valid in. A TOTP only changes, when the next time step
+ * begins, so asking for the same entry again within a time step does not require a round trip to KeePassXC.
+ * The cache is cleared, when the database gets locked or the connection is lost.
+ */
+final class TotpCache implements Flow.Subscriber<ConnectionEvent> {
+    private final long periodMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private Flow.Subscription subscription;
+
+    /**
+     * @param totp The TOTP of the entry.
+     * @param step The time step the TOTP was generated in.
+     */
+    private record Entry(String totp, long step) {
+    }
+
+    TotpCache(Duration period) {
+        this(period, System::currentTimeMillis);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param period The period of the TOTPs. KeePassXC does not tell the period of an entry, so all entries are
+     *               expected to use the same period.
+     * @param clock  Provides the current time in milliseconds since the epoch, as the time steps are counted from it.
+     */
+    TotpCache(Duration period, LongSupplier clock) {
+        this.periodMillis = period.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Get the TOTP of an entry from the cache or load and cache it. A TOTP loaded while the time step changed is not
+     * cached, as it is not known which step it belongs to. Empty TOTPs are not cached, as they are returned for failed
+     * requests as well.
+     *
+     * @param uuid   The uuid of the entry.
+     * @param loader Requests the TOTP from KeePassXC.
+     * @return A future that completes with the TOTP.
+     */
+    CompletableFuture<String> get(String uuid, Supplier<CompletableFuture<String>> loader) {
+        var step = step();
+        var entry = entries.get(uuid);
+        if (null != entry && entry.step() == step) {
+            return CompletableFuture.completedFuture(entry.totp());
+        }
+        return loader.get().thenApply(totp -> {
+            if (!totp.isEmpty() && step() == step) entries.put(uuid, new Entry(totp, step));
+            return totp;
+        });
+    }
+
+    private long step() {
+        return Math.floorDiv(clock.getAsLong(), periodMillis);
+    }
+
+    /**
+     * Drop the TOTP of an entry, e.g. because it was changed or deleted.
+     *
+     * @param uuid The uuid of the entry.
+     */
+    void invalidate(String uuid) {
+        if (null != uuid) entries.remove(uuid);
+    }
+
+    /**
+     * Drop all cached TOTPs.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stop listening to the events of the connection and drop all cached TOTPs.
+     */
+    void close() {
+        Flow.Subscription s;
+        synchronized (this) {
+            s = subscription;
+            subscription = null;
+        }
+        if (null != s) s.cancel();
+        clear();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+        }
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(ConnectionEvent event) {
+        switch (event) {
+            case DATABASE_LOCKED, DISCONNECTED, RECONNECTING, KEY_EXCHANGE_DONE -> clear();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        clear();
+    }
+
+    @Override
+    public void onComplete() {
+        clear();
+    }
+}
@@ -0,0 +1,57 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class CapabilitiesTest {
+    private static final Map<String, String> ACTIONS = Map.of(
+            "get-logins", "",
+            "delete-entry", "2.7.0",
+            "passkeys-get", "2.7.7"
+    );
+
+    @Test
+    @DisplayName("Testing supported actions depend on the version")
+    public void shouldDeriveActionsFromVersion() {
+        var old = Capabilities.of("2.6.6", ACTIONS);
+        assertEquals(Set.of("get-logins"), old.getSupportedActions());
+        assertFalse(old.supports("delete-entry"));
+        var current = Capabilities.of("2.7.7", ACTIONS);
+        assertTrue(current.supports("passkeys-get"));
+        assertEquals("2.7.7", current.getVersion().orElseThrow().toString());
+        assertFalse(Capabilities.of("2.7.6", ACTIONS).supports("passkeys-get"));
+        assertFalse(current.supports("unknown-action"));
+    }
+
+    @Test
+    @DisplayName("Testing all actions are supported, if the version is not known")
+    public void shouldSupportAllWithoutVersion() {
+        assertEquals(ACTIONS.keySet(), Capabilities.of(null, ACTIONS).getSupportedActions());
+        assertEquals(ACTIONS.keySet(), Capabilities.of("", ACTIONS).getSupportedActions());
+        assertTrue(Capabilities.of(null, ACTIONS).getVersion().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing the versions requests are supported from on match the documented ones")
+    public void shouldSupportRequestsFromDocumentedVersions() {
+        var requests = Connection.REQUEST_MINIMUM_VERSIONS;
+        assertTrue(Capabilities.of("2.6.0", requests).supports("get-logins"));
+        assertFalse(Capabilities.of("2.6.6", requests).supports("delete-entry"));
+        assertTrue(Capabilities.of("2.7.0", requests).supports("delete-entry"));
+        assertFalse(Capabilities.of("2.6.6", requests).supports("request-autotype"));
+        assertTrue(Capabilities.of("2.7.0", requests).supports("request-autotype"));
+        assertFalse(Capabilities.of("2.7.6", requests).supports("passkeys-get"));
+        assertTrue(Capabilities.of("2.7.7", requests).supports("passkeys-get"));
+        assertFalse(Capabilities.of("2.7.6", requests).supports("passkeys-register"));
+        assertTrue(Capabilities.of("2.7.7", requests).supports("passkeys-register"));
+        assertFalse(requests.containsKey("database-locked"));
+    }
+}
@@ -0,0 +1,168 @@
+package org.keepassxc;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.purejava.KeepassProxyAccessException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class ConnectionTest {
+    private static final List<Map<String, String>> KEYS = List.of(Map.of("id", "id", "key", "key"));
+    // KeePassXC answers a successful set-login with an empty error besides success
+    private static final Map<String, String> SET_LOGIN_SUCCESS = Map.of("error", "", "hash", "29234e32274a32276e25666a42");
+
+    private JSONObject await(CompletableFuture<JSONObject> request) throws Exception {
+        return request.get(1, TimeUnit.SECONDS);
+    }
+
+    private KeepassProxyAccessException failure(CompletableFuture<?> request) {
+        var e = assertThrows(ExecutionException.class, () -> request.get(1, TimeUnit.SECONDS));
+        return assertInstanceOf(KeepassProxyAccessException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Testing an error is matched to the request it answers")
+    public void shouldMatchErrorToFirstRequest() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            var first = keepassxc.getLoginsAsync("https://first.example.com", null, false, KEYS);
+            var second = keepassxc.getLoginsAsync("https://second.example.com", null, false, KEYS);
+            var firstRequest = keepassxc.next();
+            var secondRequest = keepassxc.next();
+            assertEquals("https://first.example.com", firstRequest.message().getString("url"));
+
+            keepassxc.fail(firstRequest, 15, "No logins found");
+            keepassxc.reply(secondRequest, Map.of("count", 1));
+
+            assertEquals("15", failure(first).getErrorCode());
+            assertEquals(1, await(second).getInt("count"));
+            assertEquals(0, keepassxc.getOrphanedResponseCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing errors and responses answering requests in flight in order")
+    public void shouldMatchErrorsInOrder() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            var requests = List.of(
+                    keepassxc.createNewGroupAsync("a"),
+                    keepassxc.createNewGroupAsync("b"),
+                    keepassxc.createNewGroupAsync("c"),
+                    keepassxc.createNewGroupAsync("d"));
+            for (var i = 0; i < requests.size(); i++) {
+                var request = keepassxc.next();
+                if (i % 2 == 1) {
+                    keepassxc.fail(request, 14, "Cannot create new group " + request.message().getString("groupName"));
+                } else {
+                    keepassxc.reply(request, Map.of("name", request.message().getString("groupName")));
+                }
+            }
+            assertEquals("a", await(requests.get(0)).getString("name"));
+            assertEquals("ErrorCode: 14, Cannot create new group b", failure(requests.get(1)).getMessage());
+            assertEquals("c", await(requests.get(2)).getString("name"));
+            assertEquals("ErrorCode: 14, Cannot create new group d", failure(requests.get(3)).getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing identical get-logins requests in flight share one round trip")
+    public void shouldCoalesceIdenticalGetLogins() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            var first = keepassxc.getLoginsAsync("https://example.com", null, false, KEYS);
+            var second = keepassxc.getLoginsAsync("https://example.com", null, false, KEYS);
+            var request = keepassxc.next();
+            assertEquals(0, keepassxc.pending());
+
+            keepassxc.reply(request, Map.of("count", 1));
+            assertEquals(1, await(first).getInt("count"));
+            assertEquals(1, await(second).getInt("count"));
+
+            // once answered, the same request is sent again
+            var third = keepassxc.getLoginsAsync("https://example.com", null, false, KEYS);
+            keepassxc.reply(keepassxc.next(), Map.of("count", 2));
+            assertEquals(2, await(third).getInt("count"));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing identical set-login requests are sent each")
+    public void shouldNotCoalesceWrites() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            var first = keepassxc.setLoginAsync("https://example.com", null, "id", "user", "secret", null, null, null);
+            var second = keepassxc.setLoginAsync("https://example.com", null, "id", "user", "secret", null, null, null);
+            var firstRequest = keepassxc.next();
+            var secondRequest = keepassxc.next();
+            assertEquals("set-login", firstRequest.action());
+            assertEquals("set-login", secondRequest.action());
+
+            keepassxc.reply(firstRequest, SET_LOGIN_SUCCESS);
+            keepassxc.reply(secondRequest, SET_LOGIN_SUCCESS);
+            assertTrue(await(first).has("success"));
+            assertTrue(await(second).has("success"));
+            assertEquals(0, keepassxc.pending());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing an error reaches every request joined to the one in flight")
+    public void shouldFailEveryJoinedRequest() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            var requests = List.of(
+                    keepassxc.getLoginsAsync("https://example.com", null, false, KEYS),
+                    keepassxc.getLoginsAsync("https://example.com", null, false, KEYS),
+                    keepassxc.getLoginsAsync("https://example.com", null, false, KEYS));
+            keepassxc.fail(keepassxc.next(), 15, "No logins found");
+            assertEquals(0, keepassxc.pending());
+            for (var request : requests) {
+                assertEquals("15", failure(request).getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing a successful set-login, that carries an empty error")
+    public void shouldCompleteSetLoginWithEmptyError() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            var setLogin = keepassxc.setLoginAsync("https://example.com", null, "id", "user", "secret", null, null, null);
+            var request = keepassxc.next();
+            keepassxc.reply(request, SET_LOGIN_SUCCESS);
+            var response = await(setLogin);
+            assertEquals("true", response.getString("success"));
+            assertEquals("", response.getString("error"));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing a request fails right away, when its message is dropped after it was accepted")
+    public void shouldFailRequestWhenWriteFails() throws Exception {
+        try (var keepassxc = new FakeKeePassXC()) {
+            keepassxc.connect();
+            keepassxc.setDropWrites(true);
+            var request = keepassxc.getLoginsAsync("https://example.com", null, false, KEYS);
+            var e = assertThrows(ExecutionException.class, () -> request.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, e.getCause());
+            assertEquals(0, keepassxc.pending());
+
+            keepassxc.setDropWrites(false);
+            var retry = keepassxc.getLoginsAsync("https://example.com", null, false, KEYS);
+            keepassxc.reply(keepassxc.next(), Map.of("count", 1));
+            assertEquals(1, await(retry).getInt("count"));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.keepassxc;
+
+import com.iwebpp.crypto.TweetNaclFast;
+import org.json.JSONObject;
+import org.purejava.KeepassProxyAccessException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A connection to a KeePassXC, that is played by the test: the requests are recorded instead of being sent, so the
+ * test can answer them in the order it likes. The public keys are exchanged on connect(), the database is reported
+ * to be unlocked.
+ */
+public class FakeKeePassXC extends Connection {
+    private final TweetNaclFast.Box.KeyPair keyPair = TweetNaclFast.Box.keyPair();
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final String version;
+    private volatile TweetNaclFast.Box box;
+    private volatile boolean connected;
+    private volatile boolean dropWrites;
+
+    /**
+     * A request received by KeePassXC.
+     *
+     * @param action  The action of the request.
+     * @param message The decrypted message.
+     * @param nonce   The nonce of the request.
+     */
+    public record Request(String action, JSONObject message, byte[] nonce) {
+    }
+
+    public FakeKeePassXC() {
+        this("2.7.9");
+    }
+
+    /**
+     * @param version The version KeePassXC reports, when the keys are exchanged.
+     */
+    public FakeKeePassXC(String version) {
+        this.version = version;
+    }
+
+    @Override
+    public void connect() throws IOException {
+        connected = true;
+        try {
+            changePublicKeys();
+        } catch (KeepassProxyAccessException e) {
+            throw new IOException(e);
+        }
+        reply(next(), Map.of("hash", "29234e32274a32276e25666a42"));
+    }
+
+    /**
+     * Wait for the next request sent to KeePassXC.
+     *
+     * @return The request.
+     * @throws IllegalStateException No request was sent within a second.
+     */
+    public Request next() {
+        try {
+            var request = requests.poll(1, TimeUnit.SECONDS);
+            if (null == request) throw new IllegalStateException("No request sent");
+            return request;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return The number of requests sent, that were not taken by {@link #next()} yet.
+     */
+    public int pending() {
+        return requests.size();
+    }
+
+    /**
+     * Answer a request successfully.
+     *
+     * @param request The request.
+     * @param fields  The fields of the response besides action, nonce and success.
+     */
+    public void reply(Request request, Map<String, ?> fields) {
+        var nonce = increment(request.nonce());
+        var response = new JSONObject(fields)
+                .put("action", request.action())
+                .put("nonce", b64(nonce))
+                .put("success", "true");
+        var encrypted = box.box(response.toString().getBytes(StandardCharsets.UTF_8), nonce);
+        deliver(new JSONObject()
+                .put("action", request.action())
+                .put("message", b64(encrypted))
+                .put("nonce", b64(nonce)));
+    }
+
+    /**
+     * Answer a request with an error. Like KeePassXC does, the error carries no nonce.
+     *
+     * @param request   The request.
+     * @param errorCode The code of the error.
+     * @param error     The description of the error.
+     */
+    public void fail(Request request, int errorCode, String error) {
+        deliver(new JSONObject()
+                .put("action", request.action())
+                .put("errorCode", String.valueOf(errorCode))
+                .put("error", error));
+    }
+
+    /**
+     * Let the messages sent from now on be dropped after they were accepted, like an event loop does, when the socket
+     * was closed, before the message could be written.
+     *
+     * @param dropWrites True to drop the messages.
+     */
+    public void setDropWrites(boolean dropWrites) {
+        this.dropWrites = dropWrites;
+    }
+
+    /**
+     * Hand a message over to the connection, as if it was read from the proxy.
+     *
+     * @param message The message.
+     */
+    public synchronized void deliver(JSONObject message) {
+        var frame = message.toString().getBytes(StandardCharsets.UTF_8);
+        handleFrame(frame, 0, frame.length);
+    }
+
+    @Override
+    protected CompletableFuture<Void> sendCleartextMessageAsync(ByteBuffer msg) throws IOException {
+        if (dropWrites) return CompletableFuture.failedFuture(new IOException("Socket closed"));
+        return super.sendCleartextMessageAsync(msg);
+    }
+
+    @Override
+    protected void sendCleartextMessage(ByteBuffer msg) throws IOException {
+        if (!connected) throw new IOException("Socket closed");
+        var envelope = new JSONObject(StandardCharsets.UTF_8.decode(msg).toString());
+        var action = envelope.getString("action");
+        var nonce = Base64.getDecoder().decode(envelope.getString("nonce"));
+        if (action.equals("change-public-keys")) {
+            box = new TweetNaclFast.Box(Base64.getDecoder().decode(envelope.getString("publicKey")), keyPair.getSecretKey());
+            deliver(new JSONObject()
+                    .put("action", action)
+                    .put("publicKey", b64(keyPair.getPublicKey()))
+                    .put("nonce", b64(increment(nonce)))
+                    .put("version", version)
+                    .put("success", "true"));
+            return;
+        }
+        var plain = box.open(Base64.getDecoder().decode(envelope.getString("message")), nonce);
+        requests.add(new Request(action, new JSONObject(new String(plain, StandardCharsets.UTF_8)), nonce));
+    }
+
+    @Override
+    protected boolean readCleartextResponses() {
+        return false;
+    }
+
+    @Override
+    protected boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void terminateConnection() {
+        connected = false;
+    }
+
+    @Override
+    public void close() {
+        connected = false;
+        events.close();
+        execution.shutdown();
+    }
+
+    private static String b64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static byte[] increment(byte[] nonce) {
+        var incremented = nonce.clone();
+        var c = 1;
+        for (var i = 0; i < incremented.length; i++) {
+            c += incremented[i] & 0xFF;
+            incremented[i] = (byte) c;
+            c >>= 8;
+        }
+        return incremented;
+    }
+}
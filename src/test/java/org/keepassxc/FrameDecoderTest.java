@@ -0,0 +1,55 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class FrameDecoderTest {
+
+    private boolean scan(FrameDecoder decoder, String frame) {
+        var bytes = ("  " + frame + "  ").getBytes(StandardCharsets.UTF_8);
+        return decoder.scan(bytes, 2, bytes.length - 4);
+    }
+
+    @Test
+    @DisplayName("Testing encrypted responses")
+    public void shouldDecodeEncryptedResponses() {
+        var nonce = new byte[24];
+        Arrays.fill(nonce, (byte) 7);
+        var encodedNonce = Base64.getEncoder().encodeToString(nonce);
+        var decoder = new FrameDecoder();
+        for (var length = 1; length < 8; length++) {
+            var message = Arrays.copyOf("ÿþ?>abcd".getBytes(StandardCharsets.ISO_8859_1), length);
+            var encoded = Base64.getEncoder().encodeToString(message).replace("/", "\\/");
+            var frame = "{\"action\": \"get-logins\", \"skip\": {\"message\": [1, \"}\"]}, \"version\":2.7,"
+                    + "\"message\":\"" + encoded + "\",\"nonce\":\"" + encodedNonce + "\"}";
+            assertTrue(scan(decoder, frame));
+            assertEquals("get-logins", decoder.action());
+            assertTrue(decoder.isAction("get-logins"));
+            assertFalse(decoder.isAction("get-login"));
+            assertArrayEquals(nonce, decoder.decodeNonce());
+            assertEquals(length, decoder.decodeMessage());
+            assertArrayEquals(message, Arrays.copyOf(decoder.message(), length));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing messages, that are not encrypted responses")
+    public void shouldRejectOtherMessages() {
+        var decoder = new FrameDecoder();
+        assertFalse(scan(decoder, "{\"action\":\"database-locked\"}"));
+        assertFalse(scan(decoder, "{\"action\":\"get-logins\",\"error\":\"No logins found\",\"errorCode\":\"15\"}"));
+        assertFalse(scan(decoder, "{\"action\":\"change-public-keys\",\"publicKey\":\"abc\",\"nonce\":\"abc\",\"success\":\"true\"}"));
+        assertTrue(scan(decoder, "{\"action\":\"get-logins\",\"message\":\"a!==\",\"nonce\":\"abc\"}"));
+        assertEquals(-1, decoder.decodeMessage());
+        assertNull(decoder.decodeNonce());
+    }
+}
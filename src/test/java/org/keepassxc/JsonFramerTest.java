@@ -0,0 +1,57 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class JsonFramerTest {
+
+    private List<String> feed(JsonFramer framer, String... chunks) {
+        var frames = new ArrayList<String>();
+        for (var chunk : chunks) {
+            framer.feed(ByteBuffer.wrap(chunk.getBytes(StandardCharsets.UTF_8)), frames::add);
+        }
+        return frames;
+    }
+
+    @Test
+    @DisplayName("Testing nested messages")
+    public void shouldFrameNestedMessages() {
+        var msg = "{\"groups\":{\"groups\":[{\"name\":\"Root\",\"children\":[{\"name\":\"Sub\",\"children\":[]}]}]}}";
+        assertEquals(List.of(msg), feed(new JsonFramer(), msg));
+    }
+
+    @Test
+    @DisplayName("Testing several messages within one read")
+    public void shouldFrameCoalescedMessages() {
+        var first = "{\"action\":\"database-locked\"}";
+        var second = "{\"action\":\"get-logins\",\"nonce\":\"abc\"}";
+        assertEquals(List.of(first, second), feed(new JsonFramer(), first + "\n" + second));
+    }
+
+    @Test
+    @DisplayName("Testing messages split across reads")
+    public void shouldFrameSplitMessages() {
+        var framer = new JsonFramer();
+        assertTrue(feed(framer, "{\"action\":\"get-", "logins\",\"entries\":[{").isEmpty());
+        assertTrue(framer.isPartial());
+        assertEquals(List.of("{\"action\":\"get-logins\",\"entries\":[{}]}", "{}"), feed(framer, "}]}{", "}"));
+        assertFalse(framer.isPartial());
+    }
+
+    @Test
+    @DisplayName("Testing braces and escaped quotes within strings")
+    public void shouldIgnoreBracesInStrings() {
+        var msg = "{\"password\":\"}{\\\"]\\\\\",\"name\":\"Ünïcödé }\"}";
+        assertEquals(List.of(msg), feed(new JsonFramer(), msg.substring(0, 17), msg.substring(17)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class JsonWriterTest {
+
+    @Test
+    @DisplayName("Testing nested values and escaping")
+    public void shouldWriteNestedValues() {
+        var map = new LinkedHashMap<String, Object>();
+        map.put("action", "get-logins");
+        map.put("keys", List.of(Map.of("id", "Ünïcödé \"quoted\"\n")));
+        map.put("enabled", true);
+        var writer = new JsonWriter(4);
+        writer.object(map);
+        assertEquals("{\"action\":\"get-logins\",\"keys\":[{\"id\":\"Ünïcödé \\\"quoted\\\"\\n\"}],\"enabled\":true}", writer.toString());
+    }
+
+    @Test
+    @DisplayName("Testing Base64 encoded fields")
+    public void shouldWriteBase64() {
+        var writer = new JsonWriter(16);
+        for (var length = 0; length < 8; length++) {
+            var data = "abcdefgh".substring(0, length).getBytes(StandardCharsets.US_ASCII);
+            writer.reset();
+            writer.beginObject().base64Field("b", data).endObject();
+            assertEquals("{\"b\":\"" + Base64.getEncoder().encodeToString(data) + "\"}", writer.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing that reset wipes the buffer")
+    public void shouldWipeOnReset() {
+        var writer = new JsonWriter(64);
+        writer.object(Map.of("password", "secret"));
+        writer.reset();
+        assertEquals(0, writer.length());
+        for (var b : writer.array()) assertEquals(0, b);
+    }
+}
@@ -0,0 +1,79 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class KindOfKeePassXCTest {
+
+    private record Info(String executable, String line) implements ProcessHandle.Info {
+        @Override
+        public Optional<String> command() {
+            return Optional.of(executable);
+        }
+
+        @Override
+        public Optional<String> commandLine() {
+            return Optional.of(line);
+        }
+
+        @Override
+        public Optional<String[]> arguments() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Instant> startInstant() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Duration> totalCpuDuration() {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<String> user() {
+            return Optional.empty();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the kinds of installation are told apart")
+    public void shouldClassifyProcesses() {
+        assertEquals(KeePassXCType.AppImage, KindOfKeePassXC.classify("/home/user/Downloads/KeePassXC-2.7.4-x86_64.AppImage", ""));
+        assertEquals(KeePassXCType.Flatpak, KindOfKeePassXC.classify("/usr/bin/bwrap", "/usr/bin/bwrap --args 38 keepassxc-wrapper"));
+        assertEquals(KeePassXCType.Snap, KindOfKeePassXC.classify("/snap/keepassxc/1645/usr/bin/keepassxc", "/snap/keepassxc/1645/usr/bin/keepassxc"));
+        assertEquals(KeePassXCType.Repo, KindOfKeePassXC.classify("/usr/bin/keepassxc", "keepassxc"));
+        assertNull(KindOfKeePassXC.classify("/usr/bin/bash", "bash"));
+    }
+
+    @Test
+    @DisplayName("Testing the preferred kind is found in a single pass")
+    public void shouldPreferAndStopEarly() {
+        var read = new AtomicInteger();
+        var processes = IntStream.range(0, 10_000)
+                .mapToObj(i -> {
+                    read.incrementAndGet();
+                    if (i == 10) return new Info("/usr/bin/keepassxc", "keepassxc");
+                    if (i == 20) return new Info("/home/user/KeePassXC-2.7.4-x86_64.AppImage", "");
+                    return new Info("/usr/bin/sleep", "sleep 100");
+                })
+                .map(ProcessHandle.Info.class::cast);
+        assertEquals(Optional.of(KeePassXCType.AppImage), KindOfKeePassXC.scan(processes));
+        assertEquals(21, read.get());
+        assertEquals(Optional.of(KeePassXCType.Repo), KindOfKeePassXC.scan(Stream.of(new Info("/usr/bin/keepassxc", "keepassxc"))));
+        assertTrue(KindOfKeePassXC.scan(Stream.empty()).isEmpty());
+    }
+}
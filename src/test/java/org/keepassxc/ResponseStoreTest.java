@@ -0,0 +1,111 @@
+package org.keepassxc;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class ResponseStoreTest {
+
+    private ResponseStore.Key key(int i) {
+        var nonce = new byte[24];
+        nonce[23] = (byte) i;
+        return ResponseStore.Key.of(nonce);
+    }
+
+    @Test
+    @DisplayName("Testing responses matched by nonce and action")
+    public void shouldMatchResponses() {
+        var store = new ResponseStore();
+        var pending = store.register(key(1), "get-logins");
+        assertNull(store.take(key(1), "set-login"::equals));
+        assertSame(pending, store.take(key(1), "get-logins"::equals));
+        assertNull(store.take(key(1), "get-logins"::equals));
+        assertEquals(0, store.size());
+        assertEquals(2, store.getOrphanedCount());
+    }
+
+    @Test
+    @DisplayName("Testing new requests are rejected, when the store is full")
+    public void shouldRejectWhenFull() {
+        var store = new ResponseStore(2, 1, TimeUnit.HOURS, null);
+        var first = store.register(key(1), "get-logins");
+        store.register(key(2), "get-logins");
+        var e = assertThrows(IllegalStateException.class, () -> store.register(key(3), "get-logins"));
+        assertEquals(ResponseStore.TOO_MANY_REQUESTS, e.getMessage());
+        assertEquals(2, store.size());
+        assertEquals(0, store.getEvictedCount());
+        assertFalse(first.isDone());
+        assertSame(first, store.take(key(1), "get-logins"::equals));
+        store.register(key(3), "get-logins");
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Testing requests too old are evicted to make room")
+    public void shouldEvictOldRequestsWhenFull() throws Exception {
+        var store = new ResponseStore(2, 10, TimeUnit.MILLISECONDS, null);
+        var first = store.register(key(1), "get-logins");
+        store.register(key(2), "get-logins");
+        Thread.sleep(20);
+        var third = store.register(key(3), "get-logins");
+        assertEquals(1, store.size());
+        assertEquals(2, store.getEvictedCount());
+        var e = assertThrows(ExecutionException.class, first::get);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertFalse(third.isDone());
+    }
+
+    @Test
+    @DisplayName("Testing requests too old are evicted by the timer")
+    public void shouldEvictOldRequestsByTimer() throws Exception {
+        var scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var store = new ResponseStore(2, 10, TimeUnit.MILLISECONDS, scheduler);
+            var pending = store.register(key(1), "get-logins");
+            var e = assertThrows(ExecutionException.class, () -> pending.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            assertEquals(0, store.size());
+            assertEquals(1, store.getEvictedCount());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Testing failed requests are removed")
+    public void shouldRemoveFailedRequests() {
+        var store = new ResponseStore();
+        store.register(key(1), "get-logins").completeExceptionally(new TimeoutException());
+        assertEquals(0, store.size());
+        assertNull(store.takeOldest("get-logins"));
+        var pending = store.register(key(2), "get-logins");
+        assertSame(pending, store.takeOldest("get-logins"));
+        assertTrue(pending.complete(new JSONObject()));
+    }
+
+    @Test
+    @DisplayName("Testing errors are matched to the oldest request of their action")
+    public void shouldMatchErrorsInOrder() {
+        var store = new ResponseStore();
+        var first = store.register(key(3), "get-logins");
+        var other = store.register(key(1), "set-login");
+        var second = store.register(key(2), "get-logins");
+        var third = store.register(key(4), "get-logins");
+        assertSame(first, store.takeOldest("get-logins"));
+        assertSame(third, store.take(key(4), "get-logins"::equals));
+        assertSame(second, store.takeOldest("get-logins"));
+        assertNull(store.takeOldest("get-logins"));
+        assertSame(other, store.takeOldest("set-login"));
+        assertEquals(1, store.getOrphanedCount());
+    }
+}
@@ -0,0 +1,158 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class SelectorEventLoopTest {
+
+    /**
+     * Two connected UNIX domain sockets: the client is handled by the event loop, the server side is played by the test.
+     */
+    private record SocketPair(SocketChannel client, SocketChannel server) implements AutoCloseable {
+        static SocketPair open() throws IOException {
+            var dir = Files.createTempDirectory("kpa");
+            var address = UnixDomainSocketAddress.of(dir.resolve("socket"));
+            try (var listener = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+                listener.bind(address);
+                var client = SocketChannel.open(address);
+                return new SocketPair(client, listener.accept());
+            } finally {
+                Files.deleteIfExists(address.getPath());
+                Files.delete(dir);
+            }
+        }
+
+        void send(String message) throws IOException {
+            server.write(ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        String receive(int length) throws IOException {
+            var buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (server.read(buffer) == -1) break;
+            }
+            return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            client.close();
+            server.close();
+        }
+    }
+
+    private static String poll(BlockingQueue<String> frames) throws InterruptedException {
+        return frames.poll(1, TimeUnit.SECONDS);
+    }
+
+    private static int timerCount(SelectorEventLoop eventLoop) throws Exception {
+        var count = new CompletableFuture<Integer>();
+        eventLoop.schedule(() -> count.complete(eventLoop.getTimerCount()), 0, TimeUnit.MILLISECONDS);
+        return count.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Testing messages are read from and written to a registered socket")
+    public void shouldReadAndWriteMessages() throws Exception {
+        var frames = new LinkedBlockingQueue<String>();
+        var closed = new CountDownLatch(1);
+        try (var eventLoop = new SelectorEventLoop(); var sockets = SocketPair.open()) {
+            eventLoop.register(sockets.client(),
+                    (bytes, offset, length) -> frames.add(new String(bytes, offset, length, StandardCharsets.UTF_8)),
+                    closed::countDown);
+            var request = "{\"action\":\"get-databasehash\"}";
+            eventLoop.write(sockets.client(), ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8))).get(1, TimeUnit.SECONDS);
+            assertEquals(request, sockets.receive(request.length()));
+
+            sockets.send("{\"action\":\"database-locked\"}{\"action\":\"database-unl");
+            sockets.send("ocked\"}");
+            assertEquals("{\"action\":\"database-locked\"}", poll(frames));
+            assertEquals("{\"action\":\"database-unlocked\"}", poll(frames));
+
+            sockets.server().close();
+            assertTrue(closed.await(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing a failing frame handler does not disturb reading the following messages")
+    public void shouldKeepReadingAfterFailingHandler() throws Exception {
+        var frames = new LinkedBlockingQueue<String>();
+        try (var eventLoop = new SelectorEventLoop(); var sockets = SocketPair.open()) {
+            eventLoop.register(sockets.client(), (bytes, offset, length) -> {
+                var frame = new String(bytes, offset, length, StandardCharsets.UTF_8);
+                frames.add(frame);
+                if (frame.contains("first")) throw new IllegalStateException("Failing handler");
+            }, () -> {
+            });
+            sockets.send("{\"action\":\"first\"}");
+            assertEquals("{\"action\":\"first\"}", poll(frames));
+            sockets.send("{\"action\":\"second\"}");
+            assertEquals("{\"action\":\"second\"}", poll(frames));
+            assertNull(frames.poll(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing cancelled timers are dropped and don't run")
+    public void shouldDropCancelledTimers() throws Exception {
+        var ran = new AtomicInteger();
+        try (var eventLoop = new SelectorEventLoop()) {
+            var timers = new ArrayList<Runnable>();
+            for (var i = 0; i < 100; i++) {
+                timers.add(eventLoop.schedule(ran::incrementAndGet, 1, TimeUnit.HOURS));
+            }
+            assertEquals(100, timerCount(eventLoop));
+            timers.forEach(Runnable::run);
+            assertEquals(0, timerCount(eventLoop));
+
+            var due = new CountDownLatch(1);
+            eventLoop.schedule(ran::incrementAndGet, 10, TimeUnit.MILLISECONDS).run();
+            eventLoop.schedule(due::countDown, 50, TimeUnit.MILLISECONDS);
+            assertTrue(due.await(1, TimeUnit.SECONDS));
+            assertEquals(0, ran.get());
+            assertEquals(0, timerCount(eventLoop));
+        }
+    }
+
+    @Test
+    @DisplayName("Testing writes fail, that can't reach the socket")
+    public void shouldFailWritesToUnregisteredSockets() throws Exception {
+        var closed = new CountDownLatch(1);
+        try (var eventLoop = new SelectorEventLoop(); var sockets = SocketPair.open()) {
+            var unregistered = eventLoop.write(sockets.client(), ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8)));
+            var e = assertThrows(ExecutionException.class, () -> unregistered.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, e.getCause());
+
+            eventLoop.register(sockets.client(), (bytes, offset, length) -> {
+            }, closed::countDown);
+            sockets.server().close();
+            assertTrue(closed.await(1, TimeUnit.SECONDS));
+            var afterClose = eventLoop.write(sockets.client(), ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8)));
+            e = assertThrows(ExecutionException.class, () -> afterClose.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, e.getCause());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.keepassxc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class SocketProbeTest {
+
+    private static ServerSocketChannel listen(Path socket) throws IOException {
+        var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        return server;
+    }
+
+    @Test
+    @DisplayName("Testing the first candidate, that accepts, is connected to")
+    public void shouldConnectToFirstAccepting() throws IOException {
+        var dir = Files.createTempDirectory("kpa");
+        var stale = dir.resolve("stale");
+        var first = dir.resolve("first");
+        var second = dir.resolve("second");
+        listen(stale).close();
+        var executor = Executors.newCachedThreadPool();
+        try (var a = listen(first); var b = listen(second)) {
+            var result = SocketProbe.connect(List.of(dir.resolve("missing"), stale, second, first), executor, 2, TimeUnit.SECONDS);
+            assertEquals(second, result.socket());
+            assertTrue(result.channel().isConnected());
+            result.channel().close();
+        } finally {
+            executor.shutdown();
+            for (var socket : List.of(stale, first, second)) Files.deleteIfExists(socket);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("Testing connecting fails, if no candidate accepts")
+    public void shouldFailWithoutAcceptingSocket() throws IOException {
+        var dir = Files.createTempDirectory("kpa");
+        var stale = dir.resolve("stale");
+        listen(stale).close();
+        var executor = Executors.newCachedThreadPool();
+        try {
+            assertThrows(IOException.class, () -> SocketProbe.connect(List.of(stale), executor, 2, TimeUnit.SECONDS));
+            assertThrows(IOException.class, () -> SocketProbe.connect(List.of(dir.resolve("missing")), executor, 2, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            Files.deleteIfExists(stale);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the probe does not wait for candidates listed after the one accepting")
+    public void shouldNotWaitForLaterCandidates() throws IOException {
+        var dir = Files.createTempDirectory("kpa");
+        var stale = dir.resolve("stale");
+        var first = dir.resolve("first");
+        var second = dir.resolve("second");
+        listen(stale).close();
+        var pool = Executors.newCachedThreadPool();
+        var submitted = new AtomicInteger();
+        var held = new ArrayList<Runnable>();
+        // the probe of the last candidate is held back, as if connecting to it hung
+        Executor executor = task -> {
+            if (submitted.getAndIncrement() < 2) {
+                pool.execute(task);
+            } else {
+                held.add(task);
+            }
+        };
+        try (var a = listen(first); var b = listen(second)) {
+            var result = SocketProbe.connect(List.of(stale, first, second), executor, 1, TimeUnit.HOURS);
+            assertEquals(first, result.socket());
+            result.channel().close();
+            assertEquals(1, held.size());
+            held.forEach(Runnable::run);
+        } finally {
+            pool.shutdown();
+            for (var socket : List.of(stale, first, second)) Files.deleteIfExists(socket);
+            Files.delete(dir);
+        }
+    }
+}
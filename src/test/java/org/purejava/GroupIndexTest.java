@@ -0,0 +1,80 @@
+package org.purejava;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keepassxc.ConnectionEvent;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class GroupIndexTest {
+
+    private static JSONObject group(String name, String uuid, JSONObject... children) {
+        var array = new JSONArray();
+        for (var child : children) array.put(child);
+        return new JSONObject().put("name", name).put("uuid", uuid).put("children", array);
+    }
+
+    private static JSONObject response() {
+        var root = group("Root", "0",
+                group("Private", "1", group("Work", "2")),
+                group("Business", "3", group("Work", "4", group("Projects", "5"))));
+        return new JSONObject().put("groups", new JSONObject().put("groups", new JSONArray().put(root)));
+    }
+
+    @Test
+    @DisplayName("Testing lookup by path and by uuid")
+    public void shouldFindGroups() {
+        var index = GroupIndex.of(response());
+        assertEquals(5, index.size());
+        assertEquals("2", index.findByPath("Private/Work").orElseThrow().getUuid());
+        assertEquals("4", index.findByPath("/Business/Work/").orElseThrow().getUuid());
+        assertEquals("Business/Work/Projects", index.findByUuid("5").orElseThrow().getPath());
+        assertEquals("Root", index.getRoot().orElseThrow().getName());
+        assertEquals(2, index.getGroups().size());
+        assertEquals("Projects", index.findByPath("Business/Work").orElseThrow().getChildren().get(0).getName());
+        assertTrue(index.findByPath("Work").isEmpty());
+        assertTrue(GroupIndex.of(new JSONObject()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing parents are dropped from the paths to be created")
+    public void shouldDropParents() {
+        var paths = new TreeSet<>(List.of("a", "a b", "a/b", "a/b/c", "a/d", "e"));
+        assertEquals(List.of("a b", "a/b/c", "a/d", "e"), GroupIndex.withoutParents(paths));
+    }
+
+    @Test
+    @DisplayName("Testing the index is kept until it is invalidated")
+    public void shouldCacheIndex() {
+        var requests = new AtomicInteger();
+        var cache = new GroupIndexCache();
+        var first = cache.get(() -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture(response());
+        }).join();
+        assertSame(first, cache.get(() -> CompletableFuture.completedFuture(response())).join());
+        cache.onNext(ConnectionEvent.DATABASE_LOCKED);
+        assertSame(first, cache.get(() -> CompletableFuture.completedFuture(response())).join());
+        cache.onNext(ConnectionEvent.DATABASE_UNLOCKED);
+        assertNotSame(first, cache.get(() -> CompletableFuture.completedFuture(response())).join());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    @DisplayName("Testing an empty index is not cached")
+    public void shouldNotCacheEmptyIndex() {
+        var cache = new GroupIndexCache();
+        assertTrue(cache.get(() -> CompletableFuture.completedFuture(new JSONObject())).join().isEmpty());
+        assertFalse(cache.get(() -> CompletableFuture.completedFuture(response())).join().isEmpty());
+    }
+}
@@ -0,0 +1,100 @@
+package org.purejava;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keepassxc.ConnectionEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class LoginCacheTest {
+    private static final List<Map<String, String>> KEYS = List.of(Map.of("id", "id", "key", "key"));
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private CompletableFuture<JSONObject> load(String uuid) {
+        requests.incrementAndGet();
+        var entries = new JSONArray().put(new JSONObject().put("uuid", uuid));
+        return CompletableFuture.completedFuture(new JSONObject().put("entries", entries));
+    }
+
+    private JSONObject get(LoginCache cache, String url, String uuid) {
+        return cache.get(url, "", false, KEYS, () -> load(uuid)).join();
+    }
+
+    @Test
+    @DisplayName("Testing cache hits and LRU eviction")
+    public void shouldCacheAndEvict() {
+        var cache = new LoginCache(2, Duration.ofMinutes(1));
+        var first = get(cache, "https://a.example.com", "1");
+        assertSame(first, get(cache, "https://a.example.com", "1"));
+        assertEquals(1, requests.get());
+        get(cache, "https://b.example.com", "2");
+        get(cache, "https://a.example.com", "1");
+        get(cache, "https://c.example.com", "3");
+        assertEquals(2, cache.size());
+        get(cache, "https://a.example.com", "1");
+        assertEquals(3, requests.get());
+        get(cache, "https://b.example.com", "2");
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    @DisplayName("Testing expired results")
+    public void shouldExpire() {
+        var cache = new LoginCache(2, Duration.ZERO);
+        get(cache, "https://a.example.com", "1");
+        get(cache, "https://a.example.com", "1");
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    @DisplayName("Testing invalidation")
+    public void shouldInvalidate() {
+        var cache = new LoginCache(10, Duration.ofMinutes(1));
+        get(cache, "https://a.example.com/login", "1");
+        get(cache, "https://b.example.com", "2");
+        get(cache, "https://c.example.com", "3");
+        cache.invalidate("https://a.example.com/", null);
+        cache.invalidate(null, "2");
+        assertEquals(1, cache.size());
+        cache.onNext(ConnectionEvent.DATABASE_UNLOCKED);
+        assertEquals(1, cache.size());
+        cache.onNext(ConnectionEvent.DATABASE_LOCKED);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Testing invalidation with a cached result for a null URL")
+    public void shouldInvalidateNextToNullUrl() {
+        var cache = new LoginCache(10, Duration.ofMinutes(1));
+        get(cache, null, "1");
+        get(cache, "https://a.example.com", "2");
+        cache.invalidate("https://a.example.com", null);
+        assertEquals(1, cache.size());
+        cache.invalidate(null, "1");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Testing results loaded during an invalidation are not cached")
+    public void shouldNotCacheOutdatedResults() {
+        var cache = new LoginCache(10, Duration.ofMinutes(1));
+        var pending = new CompletableFuture<JSONObject>();
+        var result = cache.get("https://a.example.com", "", false, KEYS, () -> pending);
+        cache.clear();
+        pending.complete(load("1").join());
+        assertFalse(result.join().isEmpty());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,41 @@
+package org.purejava;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class LoginEntryTest {
+
+    @Test
+    @DisplayName("Testing typed access to the entries of a get-logins response")
+    public void shouldReadEntries() {
+        var fields = new JSONArray().put(new JSONObject().put("KPH: otp", "123456"));
+        var entries = new JSONArray()
+                .put(new JSONObject().put("uuid", "1").put("name", "Example").put("login", "user").put("password", "secret").put("stringFields", fields))
+                .put(new JSONObject().put("uuid", "2").put("login", "other"));
+        var list = LoginEntry.listOf(new JSONObject().put("count", 2).put("entries", entries));
+        assertEquals(2, list.size());
+        assertEquals("1", list.get(0).getUuid());
+        assertEquals("Example", list.get(0).getName());
+        assertEquals("user", list.get(0).getLogin());
+        assertEquals("secret", list.get(0).getPassword());
+        assertEquals(Map.of("KPH: otp", "123456"), list.get(0).getStringFields());
+        assertEquals("", list.get(1).getPassword());
+        assertEquals("", list.get(1).getTotp());
+        assertTrue(list.get(1).getStringFields().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing a response without entries")
+    public void shouldHandleMissingEntries() {
+        assertTrue(LoginEntry.listOf(new JSONObject()).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package org.purejava;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keepassxc.ConnectionEvent;
+
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class PasswordPoolTest {
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private CompletableFuture<String> generate() {
+        return CompletableFuture.completedFuture("password" + requests.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("Testing the pool is refilled at the low watermark")
+    public void shouldRefillAtLowWatermark() {
+        var pool = new PasswordPool(2, 5, 4, this::generate);
+        pool.refill();
+        assertEquals(5, pool.size());
+        var handedOut = new HashSet<String>();
+        for (var i = 0; i < 2; i++) {
+            assertTrue(handedOut.add(pool.poll()));
+        }
+        assertEquals(3, pool.size());
+        assertEquals(5, requests.get());
+        assertTrue(handedOut.add(pool.poll()));
+        assertEquals(5, pool.size());
+        assertEquals(8, requests.get());
+        assertFalse(handedOut.contains(pool.poll()));
+    }
+
+    @Test
+    @DisplayName("Testing the pool is emptied, when the database gets locked")
+    public void shouldClearOnLock() {
+        var pool = new PasswordPool(0, 3, 4, this::generate);
+        pool.refill();
+        pool.onNext(ConnectionEvent.DATABASE_LOCKED);
+        assertEquals(0, pool.size());
+        pool.onNext(ConnectionEvent.DATABASE_UNLOCKED);
+        assertEquals(0, pool.size());
+        pool.refill();
+        assertEquals(3, pool.size());
+        pool.close();
+        assertEquals(0, pool.size());
+        assertNull(pool.poll());
+    }
+
+    @Test
+    @DisplayName("Testing the pool is not filled, before a password was asked for")
+    public void shouldNotFillWithoutCaller() {
+        var pool = new PasswordPool(1, 3, 1, this::generate);
+        pool.onNext(ConnectionEvent.DATABASE_UNLOCKED);
+        assertNull(pool.poll());
+        assertEquals(0, requests.get());
+        pool.refill();
+        assertEquals(3, pool.size());
+    }
+
+    @Test
+    @DisplayName("Testing passwords generated while the pool is emptied are dropped")
+    public void shouldDropOutdatedPasswords() {
+        var pending = new CompletableFuture<String>();
+        var pool = new PasswordPool(0, 1, 1, () -> pending);
+        pool.refill();
+        pool.clear();
+        pending.complete("password");
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    @DisplayName("Testing refilling stops, when no password can be generated")
+    public void shouldStopRefillingOnFailure() {
+        var pool = new PasswordPool(1, 3, 4, () -> {
+            requests.incrementAndGet();
+            return CompletableFuture.failedFuture(new IllegalStateException("locked"));
+        });
+        pool.refill();
+        assertEquals(0, pool.size());
+        assertEquals(3, requests.get());
+    }
+}
@@ -0,0 +1,94 @@
+package org.purejava;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class PipelinedDispatchTest {
+
+    @Test
+    @DisplayName("Testing the number of requests in flight is capped")
+    public void shouldCapRequestsInFlight() {
+        var pending = new ArrayList<CompletableFuture<Integer>>();
+        var keys = IntStream.range(0, 10).boxed().toList();
+        var arrived = new ArrayList<Integer>();
+        var done = PipelinedDispatch.run(keys, 3, key -> {
+            var request = new CompletableFuture<Integer>();
+            pending.add(request);
+            return request;
+        }, (key, value) -> arrived.add(key));
+        assertEquals(3, pending.size());
+        for (var i = 0; i < 10; i++) {
+            assertFalse(done.isDone());
+            pending.get(i).complete(i * i);
+            assertEquals(Math.min(10, i + 4), pending.size());
+        }
+        assertEquals(keys, arrived);
+        assertEquals(81, done.join().get(9));
+        assertEquals(10, done.join().size());
+    }
+
+    @Test
+    @DisplayName("Testing many requests, that complete immediately")
+    public void shouldNotRecurseOnImmediateResults() {
+        var keys = IntStream.range(0, 100_000).boxed().toList();
+        var done = PipelinedDispatch.run(keys, 1, CompletableFuture::completedFuture, null);
+        assertEquals(100_000, done.join().size());
+    }
+
+    @Test
+    @DisplayName("Testing failed requests are left out")
+    public void shouldLeaveOutFailedRequests() {
+        var done = PipelinedDispatch.run(List.of("a", "b"), 2, key -> key.equals("a")
+                ? CompletableFuture.failedFuture(new IllegalStateException())
+                : CompletableFuture.completedFuture(key), null);
+        assertEquals(Map.of("b", "b"), done.join());
+        assertTrue(PipelinedDispatch.run(List.of(), 2, CompletableFuture::completedFuture, null).join().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Testing keys are taken from the iterator only, when there is a free slot")
+    public void shouldTakeKeysLazily() {
+        var pending = new ArrayList<CompletableFuture<Integer>>();
+        var taken = new AtomicInteger();
+        var keys = Stream.iterate(0, i -> i + 1).limit(5).peek(i -> taken.incrementAndGet()).iterator();
+        var done = PipelinedDispatch.run(keys, 2, key -> {
+            var request = new CompletableFuture<Integer>();
+            pending.add(request);
+            return request;
+        }, null);
+        assertEquals(2, taken.get());
+        pending.get(0).complete(0);
+        assertEquals(3, taken.get());
+        for (var i = 1; i < 5; i++) {
+            assertFalse(done.isDone());
+            pending.get(i).complete(i);
+        }
+        assertEquals(5, done.join().size());
+    }
+
+    @Test
+    @DisplayName("Testing an iterator without keys and one, that fails")
+    public void shouldHandleEmptyAndFailingIterators() {
+        assertTrue(PipelinedDispatch.run(Collections.<String>emptyIterator(), 2, CompletableFuture::completedFuture, null).join().isEmpty());
+        var keys = Stream.of("a", "b").peek(key -> {
+            if (key.equals("b")) throw new IllegalStateException("Broken source");
+        }).iterator();
+        var done = PipelinedDispatch.run(keys, 1, CompletableFuture::completedFuture, null);
+        assertInstanceOf(IllegalStateException.class, assertThrows(CompletionException.class, done::join).getCause());
+    }
+}
@@ -0,0 +1,116 @@
+package org.purejava;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keepassxc.FakeKeePassXC;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class PipelinedRequestsTest {
+    private static final List<Map<String, String>> KEYS = List.of(Map.of("id", "id", "key", "key"));
+
+    private KeepassProxyAccess connect(FakeKeePassXC keepassxc) throws Exception {
+        var kpa = new KeepassProxyAccess(keepassxc, Files.createTempDirectory("kpa").resolve("keepass-proxy-access.dat").toString());
+        assertTrue(kpa.connect());
+        return kpa;
+    }
+
+    private Map<String, Object> entry(String name) {
+        return Map.of("name", name, "login", "user", "password", "secret", "uuid", name);
+    }
+
+    @Test
+    @DisplayName("Testing bulk getLogins with URLs no logins are found for")
+    public void shouldMatchBulkLoginsMixedWithErrors() throws Exception {
+        var keepassxc = new FakeKeePassXC();
+        var kpa = connect(keepassxc);
+        var urls = List.of("https://a.example.com", "https://b.example.com", "https://c.example.com",
+                "https://d.example.com", "https://e.example.com");
+        var bulk = kpa.getLoginsAsync(urls, false, KEYS, 3);
+
+        // KeePassXC answers in order, logins are found for every other URL only
+        for (var i = 0; i < urls.size(); i++) {
+            var request = keepassxc.next();
+            var url = request.message().getString("url");
+            assertEquals(urls.get(i), url);
+            if (i % 2 == 0) {
+                keepassxc.reply(request, Map.of("count", 1, "entries", List.of(entry(url))));
+            } else {
+                keepassxc.fail(request, 15, "No logins found");
+            }
+        }
+
+        var logins = bulk.get(1, TimeUnit.SECONDS);
+        assertEquals(urls.size(), logins.size());
+        for (var i = 0; i < urls.size(); i++) {
+            var found = logins.get(urls.get(i));
+            if (i % 2 == 0) {
+                var entries = (List<?>) found.get("entries");
+                assertEquals(urls.get(i), ((Map<?, ?>) entries.get(0)).get("name"));
+            } else {
+                assertTrue(found.isEmpty());
+            }
+        }
+        assertEquals(0, keepassxc.pending());
+        assertTrue(kpa.shutdown());
+    }
+
+    @Test
+    @DisplayName("Testing importLogins with records KeePassXC rejects")
+    public void shouldReportImportedLoginsInOrder() throws Exception {
+        var keepassxc = new FakeKeePassXC();
+        var kpa = connect(keepassxc);
+        var records = new ArrayList<LoginRecord>();
+        for (var i = 0; i < 6; i++) {
+            records.add(new LoginRecord("https://" + i + ".example.com", "", "user" + i, "secret", "", "", ""));
+        }
+        var progress = Collections.synchronizedList(new ArrayList<String>());
+        var taken = new AtomicInteger();
+        // a stream, that does not know its size and is only read as far as requests are sent
+        var logins = Stream.iterate(0, i -> i + 1).limit(records.size()).map(records::get).peek(r -> taken.incrementAndGet());
+        var imported = kpa.importLoginsAsync(logins, 2,
+                (result, completed, total) -> progress.add(result.getLogin().getLogin() + " " + completed + "/" + total));
+        assertEquals(2, taken.get());
+
+        // KeePassXC answers in order, it rejects the second record and the fourth without an error code
+        for (var i = 0; i < records.size(); i++) {
+            var request = keepassxc.next();
+            assertEquals("user" + i, request.message().getString("login"));
+            if (i == 1) {
+                keepassxc.fail(request, 19, "Entry not saved");
+            } else if (i == 3) {
+                keepassxc.deliver(new JSONObject().put("action", request.action()).put("error", "Unknown error"));
+            } else {
+                keepassxc.reply(request, Map.of("error", ""));
+            }
+        }
+
+        var results = imported.get(1, TimeUnit.SECONDS);
+        assertEquals(records.size(), results.size());
+        for (var i = 0; i < records.size(); i++) {
+            var result = results.get(i);
+            assertSame(records.get(i), result.getLogin());
+            assertEquals(i != 1 && i != 3, result.isSuccess());
+            assertEquals("user" + i + " " + (i + 1) + "/-1", progress.get(i));
+        }
+        assertEquals("19", results.get(1).getErrorCode());
+        assertEquals("ErrorCode: 19, Entry not saved", results.get(1).getError());
+        assertNull(results.get(3).getErrorCode());
+        assertNull(results.get(0).getErrorCode());
+        assertEquals(0, keepassxc.pending());
+        assertTrue(kpa.shutdown());
+    }
+}
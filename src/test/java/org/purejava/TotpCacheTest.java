@@ -0,0 +1,75 @@
+package org.purejava;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.keepassxc.ConnectionEvent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This test does not need KeePassXC and is run within CI.
+ */
+public class TotpCacheTest {
+    private final AtomicLong now = new AtomicLong(60_000);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final TotpCache cache = new TotpCache(Duration.ofSeconds(30), now::get);
+
+    private String get(String uuid) {
+        return cache.get(uuid, () -> CompletableFuture.completedFuture(uuid + "-" + requests.incrementAndGet())).join();
+    }
+
+    @Test
+    @DisplayName("Testing TOTPs are kept within their time step")
+    public void shouldCacheWithinTimeStep() {
+        assertEquals("a-1", get("a"));
+        now.addAndGet(29_999);
+        assertEquals("a-1", get("a"));
+        now.addAndGet(1);
+        assertEquals("a-2", get("a"));
+        assertEquals("b-3", get("b"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Testing TOTPs loaded across a time step are not cached")
+    public void shouldNotCacheAcrossTimeStep() {
+        cache.get("a", () -> {
+            now.addAndGet(30_000);
+            return CompletableFuture.completedFuture("a");
+        }).join();
+        assertEquals(0, cache.size());
+        cache.get("b", () -> CompletableFuture.completedFuture("")).join();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Testing the cache is cleared, when the database gets locked")
+    public void shouldClearOnLock() {
+        get("a");
+        get("b");
+        cache.invalidate("a");
+        assertEquals(1, cache.size());
+        cache.onNext(ConnectionEvent.DATABASE_UNLOCKED);
+        assertEquals(1, cache.size());
+        cache.onNext(ConnectionEvent.DATABASE_LOCKED);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Testing TOTPs are kept for the configured period")
+    public void shouldUseConfiguredPeriod() {
+        var minute = new TotpCache(Duration.ofSeconds(60), now::get);
+        assertEquals("a", minute.get("a", () -> CompletableFuture.completedFuture("a")).join());
+        now.addAndGet(59_999);
+        assertEquals("a", minute.get("a", () -> CompletableFuture.completedFuture("b")).join());
+        now.addAndGet(1);
+        assertEquals("c", minute.get("a", () -> CompletableFuture.completedFuture("c")).join());
+        minute.close();
+        assertEquals(0, minute.size());
+    }
+}
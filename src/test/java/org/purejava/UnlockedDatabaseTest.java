@@ -58,6 +58,7 @@ public class UnlockedDatabaseTest {
             )
         );
         assertTrue(kpa.databaseGroupsToMap(kpa.getDatabaseGroups()).toString().contains("KeePassXC-Browser Passwords"));
+        assertTrue(kpa.getGroupIndex().findByPath("KeePassXC-Browser Passwords").isPresent());
         assertFalse(kpa.generatePassword().isEmpty());
         LOG.info("Please allow to create new group");
         assertEquals(kpa.createNewGroup("Testgroup").get("name"), "Testgroup");